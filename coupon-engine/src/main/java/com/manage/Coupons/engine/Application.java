@@ -0,0 +1,20 @@
+package com.manage.Coupons.engine;
+
+/**
+ * Result of applying a coupon: the discounted unit price of every cart line, indexed
+ * like {@link CartSnapshot#lines()}, and the new cart total.
+ */
+public record Application(double[] unitPrices, double totalAmount) {
+
+    static Application unchanged(CartSnapshot cart) {
+        double[] prices = new double[cart.lines().size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = cart.lines().get(i).price();
+        }
+        return new Application(prices, cart.totalAmount());
+    }
+
+    public double discount(CartSnapshot cart) {
+        return cart.totalAmount() - totalAmount;
+    }
+}
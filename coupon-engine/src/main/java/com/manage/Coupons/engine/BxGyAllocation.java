@@ -0,0 +1,16 @@
+package com.manage.Coupons.engine;
+
+/**
+ * Outcome of allocating a BxGy coupon over a cart. {@code freeUnits} is indexed like
+ * the cart's item list.
+ */
+public record BxGyAllocation(int repetitions, int[] freeUnits, double discount) {
+
+    static BxGyAllocation none(int lines) {
+        return new BxGyAllocation(0, new int[lines], 0);
+    }
+
+    public boolean isApplied() {
+        return repetitions > 0;
+    }
+}
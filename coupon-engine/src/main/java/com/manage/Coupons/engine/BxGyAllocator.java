@@ -0,0 +1,165 @@
+package com.manage.Coupons.engine;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Allocates free units for a BxGy coupon. Cart lines are classified into buy-only,
+ * get-only and overlapping (both buy and get) in a single pass; the free units are
+ * then the cheapest get-eligible units, picked with bounded heaps so the cost is
+ * O(n log k) for n lines and k candidate lines rather than a full sort.
+ *
+ * A unit of an overlapping product can pay for the "buy" side or be given away, but
+ * not both, so each repetition reserves buy plus get units and only the overlap units
+ * not needed to reach the buy quantity are free candidates. A coupon that would free
+ * nothing is not applied.
+ */
+public final class BxGyAllocator {
+
+    private BxGyAllocator() {
+    }
+
+    public static long countBuyUnits(BxGyRule coupon, List<CartLine> items) {
+        Set<String> buyProducts = coupon.getBuyProducts();
+        long units = 0;
+        for (CartLine item : items) {
+            if (buyProducts.contains(item.productId())) {
+                units += quantityOf(item);
+            }
+        }
+        return units;
+    }
+
+    public static BxGyAllocation allocate(BxGyRule coupon, List<CartLine> items) {
+        Set<String> buyProducts = coupon.getBuyProducts();
+        Set<String> getProducts = coupon.getGetProducts();
+        int lines = items.size();
+
+        long buyOnlyUnits = 0;
+        long getOnlyUnits = 0;
+        long overlapUnits = 0;
+        int[] getOnlyLines = new int[lines];
+        int getOnlyCount = 0;
+        int[] overlapLines = new int[lines];
+        int overlapCount = 0;
+
+        for (int i = 0; i < lines; i++) {
+            CartLine item = items.get(i);
+            int quantity = quantityOf(item);
+            if (quantity == 0) {
+                continue;
+            }
+            boolean buy = buyProducts.contains(item.productId());
+            boolean get = getProducts.contains(item.productId());
+            if (buy && get) {
+                overlapUnits += quantity;
+                overlapLines[overlapCount++] = i;
+            } else if (buy) {
+                buyOnlyUnits += quantity;
+            } else if (get) {
+                getOnlyUnits += quantity;
+                getOnlyLines[getOnlyCount++] = i;
+            }
+        }
+
+        long buyUnits = buyOnlyUnits + overlapUnits;
+        long getUnits = getOnlyUnits + overlapUnits;
+        int buyQuantity = coupon.getBuyQuantity();
+        int getQuantity = coupon.getGetQuantity();
+        // Repetitions that can each reserve their full get allowance, then at most one
+        // more that pays for its buy units but frees only what is left over
+        long repetitions = Math.min(Math.min(buyUnits / buyQuantity, getUnits / getQuantity),
+                (buyOnlyUnits + getOnlyUnits + overlapUnits) / (buyQuantity + getQuantity));
+        repetitions = Math.min(repetitions, coupon.getRepetitionLimit());
+        if (repetitions < coupon.getRepetitionLimit() && (repetitions + 1) * buyQuantity <= buyUnits
+                && freeUnits(coupon, repetitions + 1, buyOnlyUnits, getOnlyUnits, overlapUnits)
+                        > freeUnits(coupon, repetitions, buyOnlyUnits, getOnlyUnits, overlapUnits)) {
+            repetitions++;
+        }
+        if (repetitions <= 0) {
+            return BxGyAllocation.none(lines);
+        }
+
+        long overlapFreeCap = overlapFreeCap(coupon, repetitions, buyOnlyUnits, overlapUnits);
+        long freeUnits = freeUnits(coupon, repetitions, buyOnlyUnits, getOnlyUnits, overlapUnits);
+
+        int[] getOnlyCheapest = cheapestLines(items, getOnlyLines, getOnlyCount, freeUnits);
+        int[] overlapCheapest = cheapestLines(items, overlapLines, overlapCount, Math.min(freeUnits, overlapFreeCap));
+
+        int[] free = new int[lines];
+        double discount = 0;
+        long remaining = freeUnits;
+        long overlapLeft = overlapFreeCap;
+        int g = 0;
+        int o = 0;
+        while (remaining > 0) {
+            boolean hasGet = g < getOnlyCheapest.length;
+            boolean hasOverlap = o < overlapCheapest.length && overlapLeft > 0;
+            if (!hasGet && !hasOverlap) {
+                break;
+            }
+            boolean takeOverlap = hasOverlap
+                    && (!hasGet || isCheaper(items, overlapCheapest[o], getOnlyCheapest[g]));
+            int line = takeOverlap ? overlapCheapest[o++] : getOnlyCheapest[g++];
+            long take = Math.min(quantityOf(items.get(line)), remaining);
+            if (takeOverlap) {
+                take = Math.min(take, overlapLeft);
+                overlapLeft -= take;
+            }
+            free[line] = (int) take;
+            discount += take * items.get(line).price();
+            remaining -= take;
+        }
+
+        return new BxGyAllocation((int) repetitions, free, discount);
+    }
+
+    private static long freeUnits(BxGyRule coupon, long repetitions, long buyOnlyUnits, long getOnlyUnits,
+            long overlapUnits) {
+        return Math.min(repetitions * coupon.getGetQuantity(),
+                getOnlyUnits + overlapFreeCap(coupon, repetitions, buyOnlyUnits, overlapUnits));
+    }
+
+    // Overlap units left once the buy side of every repetition is paid for
+    private static long overlapFreeCap(BxGyRule coupon, long repetitions, long buyOnlyUnits, long overlapUnits) {
+        return overlapUnits - Math.max(0, repetitions * coupon.getBuyQuantity() - buyOnlyUnits);
+    }
+
+    /**
+     * Returns the candidate lines that together hold the {@code units} cheapest units,
+     * in ascending price order. A max-heap keeps only as many lines as are needed to
+     * cover {@code units}, evicting the most expensive line once it is surplus.
+     */
+    private static int[] cheapestLines(List<CartLine> items, int[] candidates, int count, long units) {
+        if (units <= 0 || count == 0) {
+            return new int[0];
+        }
+        PriorityQueue<Integer> mostExpensiveFirst = new PriorityQueue<>(
+                (a, b) -> a.equals(b) ? 0 : isCheaper(items, a, b) ? 1 : -1);
+        long heldUnits = 0;
+        for (int i = 0; i < count; i++) {
+            int line = candidates[i];
+            mostExpensiveFirst.add(line);
+            heldUnits += quantityOf(items.get(line));
+            while (heldUnits - quantityOf(items.get(mostExpensiveFirst.peek())) >= units) {
+                heldUnits -= quantityOf(items.get(mostExpensiveFirst.poll()));
+            }
+        }
+        int[] ascending = new int[mostExpensiveFirst.size()];
+        for (int i = ascending.length - 1; i >= 0; i--) {
+            ascending[i] = mostExpensiveFirst.poll();
+        }
+        return ascending;
+    }
+
+    // Ties on price go to the earlier cart line so allocation is deterministic
+    private static boolean isCheaper(List<CartLine> items, int a, int b) {
+        int byPrice = Double.compare(items.get(a).price(), items.get(b).price());
+        return byPrice < 0 || (byPrice == 0 && a < b);
+    }
+
+    private static int quantityOf(CartLine item) {
+        return Math.max(0, item.quantity());
+    }
+}
@@ -0,0 +1,83 @@
+package com.manage.Coupons.engine;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public final class BxGyRule extends CouponRule {
+
+    private final Set<String> buyProducts;
+    private final int buyQuantity;
+    private final Set<String> getProducts;
+    private final int getQuantity;
+    private final int repetitionLimit;
+
+    public BxGyRule(Long id, String code, boolean active, LocalDateTime validFrom, LocalDateTime validTo,
+            Collection<String> buyProducts, int buyQuantity, Collection<String> getProducts, int getQuantity,
+            int repetitionLimit) {
+        super(id, code, active, validFrom, validTo);
+        if (buyQuantity < 1) {
+            throw new IllegalArgumentException("Buy quantity must be at least 1");
+        }
+        if (getQuantity < 1) {
+            throw new IllegalArgumentException("Get quantity must be at least 1");
+        }
+        this.buyProducts = Set.copyOf(buyProducts);
+        this.buyQuantity = buyQuantity;
+        this.getProducts = Set.copyOf(getProducts);
+        this.getQuantity = getQuantity;
+        this.repetitionLimit = repetitionLimit;
+    }
+
+    @Override
+    public RuleType type() {
+        return RuleType.BXGY;
+    }
+
+    @Override
+    public Evaluation evaluate(CartSnapshot cart) {
+        if (BxGyAllocator.countBuyUnits(this, cart.lines()) < buyQuantity) {
+            return Evaluation.notApplicable("Buy conditions not met");
+        }
+        return Evaluation.APPLICABLE;
+    }
+
+    @Override
+    public Application apply(CartSnapshot cart) {
+        BxGyAllocation allocation = BxGyAllocator.allocate(this, cart.lines());
+        if (!allocation.isApplied()) {
+            return Application.unchanged(cart);
+        }
+        List<CartLine> lines = cart.lines();
+        double[] prices = new double[lines.size()];
+        double total = 0;
+        for (int i = 0; i < prices.length; i++) {
+            CartLine line = lines.get(i);
+            int freeUnits = allocation.freeUnits()[i];
+            prices[i] = freeUnits > 0 ? line.price() * (line.quantity() - freeUnits) / line.quantity() : line.price();
+            total += prices[i] * line.quantity();
+        }
+        return new Application(prices, total);
+    }
+
+    public Set<String> getBuyProducts() {
+        return buyProducts;
+    }
+
+    public int getBuyQuantity() {
+        return buyQuantity;
+    }
+
+    public Set<String> getGetProducts() {
+        return getProducts;
+    }
+
+    public int getGetQuantity() {
+        return getQuantity;
+    }
+
+    public int getRepetitionLimit() {
+        return repetitionLimit;
+    }
+}
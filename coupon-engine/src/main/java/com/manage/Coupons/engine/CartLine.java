@@ -0,0 +1,8 @@
+package com.manage.Coupons.engine;
+
+public record CartLine(String productId, double price, int quantity) {
+
+    public double lineTotal() {
+        return price * quantity;
+    }
+}
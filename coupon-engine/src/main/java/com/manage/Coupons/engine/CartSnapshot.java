@@ -0,0 +1,22 @@
+package com.manage.Coupons.engine;
+
+import java.util.List;
+
+/**
+ * Immutable cart as seen by the engine. The total is kept separately from the lines
+ * because callers may quote a total that already includes other adjustments.
+ */
+public record CartSnapshot(List<CartLine> lines, double totalAmount) {
+
+    public CartSnapshot {
+        lines = List.copyOf(lines);
+    }
+
+    public static CartSnapshot of(List<CartLine> lines) {
+        double total = 0;
+        for (CartLine line : lines) {
+            total += line.lineTotal();
+        }
+        return new CartSnapshot(lines, total);
+    }
+}
@@ -0,0 +1,68 @@
+package com.manage.Coupons.engine;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public final class CartWiseRule extends CouponRule {
+
+    private final double minCartAmount;
+    private final Double discountPercentage;
+    private final Double fixedDiscount;
+
+    public CartWiseRule(Long id, String code, boolean active, LocalDateTime validFrom, LocalDateTime validTo,
+            double minCartAmount, Double discountPercentage, Double fixedDiscount) {
+        super(id, code, active, validFrom, validTo);
+        this.minCartAmount = minCartAmount;
+        this.discountPercentage = discountPercentage;
+        this.fixedDiscount = fixedDiscount;
+    }
+
+    @Override
+    public RuleType type() {
+        return RuleType.CART_WISE;
+    }
+
+    @Override
+    public Evaluation evaluate(CartSnapshot cart) {
+        if (cart.totalAmount() < minCartAmount) {
+            return Evaluation.notApplicable("Cart total doesn't meet minimum requirement");
+        }
+        return Evaluation.APPLICABLE;
+    }
+
+    // A fixed discount takes precedence over a percentage; either is spread over the lines pro rata
+    @Override
+    public Application apply(CartSnapshot cart) {
+        double total = cart.totalAmount();
+        if (total <= 0) {
+            return Application.unchanged(cart);
+        }
+        double discount = 0;
+        if (discountPercentage != null) {
+            discount = total * (discountPercentage / 100);
+        }
+        if (fixedDiscount != null) {
+            discount = Math.min(fixedDiscount, total);
+        }
+        double share = discount / total;
+
+        List<CartLine> lines = cart.lines();
+        double[] prices = new double[lines.size()];
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = lines.get(i).price() * (1 - share);
+        }
+        return new Application(prices, total - discount);
+    }
+
+    public double getMinCartAmount() {
+        return minCartAmount;
+    }
+
+    public Double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public Double getFixedDiscount() {
+        return fixedDiscount;
+    }
+}
@@ -0,0 +1,105 @@
+package com.manage.Coupons.engine;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable category hierarchy plus the product-to-category assignment. Every category
+ * gets a dense index and a precomputed bitset of its ancestors (itself included), so
+ * "is this product under category C" is a map lookup and a bit test however deep the
+ * hierarchy is.
+ */
+public final class CategoryTree {
+
+    public static final int UNKNOWN = -1;
+
+    private static final CategoryTree EMPTY = new CategoryTree(Map.of(), new BitSet[0], Map.of());
+
+    private final Map<String, Integer> indexByCategory;
+    private final BitSet[] ancestors;
+    private final Map<String, Integer> categoryByProduct;
+
+    private CategoryTree(Map<String, Integer> indexByCategory, BitSet[] ancestors,
+            Map<String, Integer> categoryByProduct) {
+        this.indexByCategory = indexByCategory;
+        this.ancestors = ancestors;
+        this.categoryByProduct = categoryByProduct;
+    }
+
+    public static CategoryTree empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param parentByCategory every category mapped to its parent, or to {@code null} for roots
+     * @param categoryByProduct product id mapped to the (most specific) category it belongs to
+     */
+    public static CategoryTree of(Map<String, String> parentByCategory, Map<String, String> categoryByProduct) {
+        Map<String, Integer> index = new HashMap<>(parentByCategory.size() * 2);
+        for (String category : parentByCategory.keySet()) {
+            index.put(category, index.size());
+        }
+        int[] parent = new int[index.size()];
+        for (Map.Entry<String, String> entry : parentByCategory.entrySet()) {
+            String parentName = entry.getValue();
+            if (parentName != null && !index.containsKey(parentName)) {
+                throw new IllegalArgumentException("Category " + entry.getKey() + " has unknown parent " + parentName);
+            }
+            parent[index.get(entry.getKey())] = parentName == null ? UNKNOWN : index.get(parentName);
+        }
+
+        BitSet[] ancestors = new BitSet[parent.length];
+        for (int category = 0; category < parent.length; category++) {
+            resolveAncestors(category, parent, ancestors, new BitSet(parent.length));
+        }
+
+        Map<String, Integer> products = new HashMap<>(categoryByProduct.size() * 2);
+        for (Map.Entry<String, String> entry : categoryByProduct.entrySet()) {
+            Integer category = index.get(entry.getValue());
+            if (category == null) {
+                throw new IllegalArgumentException("Product " + entry.getKey() + " has unknown category " + entry.getValue());
+            }
+            products.put(entry.getKey(), category);
+        }
+        return new CategoryTree(Map.copyOf(index), ancestors, Map.copyOf(products));
+    }
+
+    // Memoized, so each category's set is built once from its parent's
+    private static BitSet resolveAncestors(int category, int[] parent, BitSet[] ancestors, BitSet visiting) {
+        if (ancestors[category] != null) {
+            return ancestors[category];
+        }
+        if (visiting.get(category)) {
+            throw new IllegalArgumentException("Category hierarchy contains a cycle");
+        }
+        visiting.set(category);
+        BitSet set = parent[category] == UNKNOWN ? new BitSet(parent.length)
+                : (BitSet) resolveAncestors(parent[category], parent, ancestors, visiting).clone();
+        set.set(category);
+        ancestors[category] = set;
+        return set;
+    }
+
+    public int indexOf(String category) {
+        Integer index = category == null ? null : indexByCategory.get(category);
+        return index == null ? UNKNOWN : index;
+    }
+
+    public boolean contains(String category) {
+        return indexOf(category) != UNKNOWN;
+    }
+
+    public boolean isUnder(int category, int ancestor) {
+        return category != UNKNOWN && ancestor != UNKNOWN && ancestors[category].get(ancestor);
+    }
+
+    public boolean isProductUnder(String productId, int ancestor) {
+        Integer category = productId == null ? null : categoryByProduct.get(productId);
+        return category != null && isUnder(category, ancestor);
+    }
+
+    public int size() {
+        return ancestors.length;
+    }
+}
@@ -0,0 +1,71 @@
+package com.manage.Coupons.engine;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public final class CategoryWiseRule extends CouponRule {
+
+    private final CategoryTree categories;
+    private final String category;
+    private final int categoryIndex;
+    private final Double discountPercentage;
+    private final Double fixedDiscount;
+
+    public CategoryWiseRule(Long id, String code, boolean active, LocalDateTime validFrom, LocalDateTime validTo,
+            CategoryTree categories, String category, Double discountPercentage, Double fixedDiscount) {
+        super(id, code, active, validFrom, validTo);
+        this.categories = categories;
+        this.category = category;
+        this.categoryIndex = categories.indexOf(category);
+        this.discountPercentage = discountPercentage;
+        this.fixedDiscount = fixedDiscount;
+    }
+
+    @Override
+    public RuleType type() {
+        return RuleType.CATEGORY_WISE;
+    }
+
+    @Override
+    public Evaluation evaluate(CartSnapshot cart) {
+        for (CartLine line : cart.lines()) {
+            if (line.quantity() > 0 && categories.isProductUnder(line.productId(), categoryIndex)) {
+                return Evaluation.APPLICABLE;
+            }
+        }
+        return Evaluation.notApplicable("No products from category in cart");
+    }
+
+    @Override
+    public Application apply(CartSnapshot cart) {
+        List<CartLine> lines = cart.lines();
+        double[] prices = new double[lines.size()];
+        double total = 0;
+        for (int i = 0; i < prices.length; i++) {
+            CartLine line = lines.get(i);
+            double price = line.price();
+            if (categories.isProductUnder(line.productId(), categoryIndex)) {
+                if (discountPercentage != null) {
+                    price = price - price * (discountPercentage / 100);
+                } else if (fixedDiscount != null) {
+                    price = Math.max(0, price - fixedDiscount);
+                }
+            }
+            prices[i] = price;
+            total += price * line.quantity();
+        }
+        return new Application(prices, total);
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public Double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public Double getFixedDiscount() {
+        return fixedDiscount;
+    }
+}
@@ -0,0 +1,69 @@
+package com.manage.Coupons.engine;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, versioned set of compiled coupon rules with lookups by id and by
+ * normalized (trimmed, upper-cased) code.
+ */
+public final class CouponCatalog {
+
+    private static final CouponCatalog EMPTY = new CouponCatalog(0, List.of());
+
+    private final long version;
+    private final List<CouponRule> rules;
+    private final Map<Long, CouponRule> byId;
+    private final Map<String, CouponRule> byCode;
+
+    private CouponCatalog(long version, List<CouponRule> rules) {
+        this.version = version;
+        this.rules = rules;
+        this.byId = new HashMap<>(rules.size() * 2);
+        this.byCode = new HashMap<>(rules.size() * 2);
+        for (CouponRule rule : rules) {
+            if (rule.getId() != null) {
+                byId.put(rule.getId(), rule);
+            }
+            String code = normalizeCode(rule.getCode());
+            if (code != null) {
+                byCode.put(code, rule);
+            }
+        }
+    }
+
+    public static CouponCatalog empty() {
+        return EMPTY;
+    }
+
+    public static CouponCatalog of(long version, Collection<? extends CouponRule> rules) {
+        return new CouponCatalog(version, List.copyOf(rules));
+    }
+
+    public static String normalizeCode(String code) {
+        return code == null ? null : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<CouponRule> rules() {
+        return rules;
+    }
+
+    public CouponRule findById(Long id) {
+        return byId.get(id);
+    }
+
+    public CouponRule findByCode(String code) {
+        return byCode.get(normalizeCode(code));
+    }
+
+    public int size() {
+        return rules.size();
+    }
+}
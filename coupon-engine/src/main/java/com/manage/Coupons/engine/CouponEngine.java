@@ -0,0 +1,50 @@
+package com.manage.Coupons.engine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Entry point for in-process evaluation. Holds the current catalog snapshot, which the
+ * embedding service replaces through {@link #sync} whenever its local copy changes;
+ * evaluations in flight keep using the snapshot they started with.
+ */
+public final class CouponEngine {
+
+    private volatile CouponCatalog catalog;
+
+    public CouponEngine() {
+        this(CouponCatalog.empty());
+    }
+
+    public CouponEngine(CouponCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public void sync(CouponCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    public CouponCatalog catalog() {
+        return catalog;
+    }
+
+    public List<CouponRule> applicableCoupons(CartSnapshot cart, LocalDateTime now) {
+        List<CouponRule> applicable = new ArrayList<>();
+        for (CouponRule rule : catalog.rules()) {
+            if (rule.isValidAt(now) && rule.evaluate(cart).applicable()) {
+                applicable.add(rule);
+            }
+        }
+        return applicable;
+    }
+
+    public Optional<Application> applyByCode(String code, CartSnapshot cart, LocalDateTime now) {
+        CouponRule rule = catalog.findByCode(code);
+        if (rule == null || !rule.isValidAt(now) || !rule.evaluate(cart).applicable()) {
+            return Optional.empty();
+        }
+        return Optional.of(rule.apply(cart));
+    }
+}
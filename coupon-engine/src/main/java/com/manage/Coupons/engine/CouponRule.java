@@ -0,0 +1,61 @@
+package com.manage.Coupons.engine;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compiled, immutable form of a coupon. Each rule knows how to check itself against a
+ * cart and how to apply itself; the validity window is checked separately so callers
+ * can evaluate at any point in time.
+ */
+public abstract sealed class CouponRule permits CartWiseRule, ProductWiseRule, CategoryWiseRule, BxGyRule {
+
+    private final Long id;
+    private final String code;
+    private final boolean active;
+    private final LocalDateTime validFrom;
+    private final LocalDateTime validTo;
+
+    protected CouponRule(Long id, String code, boolean active, LocalDateTime validFrom, LocalDateTime validTo) {
+        this.id = id;
+        this.code = code;
+        this.active = active;
+        this.validFrom = validFrom;
+        this.validTo = validTo;
+    }
+
+    public abstract RuleType type();
+
+    public abstract Evaluation evaluate(CartSnapshot cart);
+
+    public abstract Application apply(CartSnapshot cart);
+
+    public boolean isValidAt(LocalDateTime now) {
+        if (!active) {
+            return false;
+        }
+        if (validFrom != null && now.isBefore(validFrom)) {
+            return false;
+        }
+        return validTo == null || !now.isAfter(validTo);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public LocalDateTime getValidFrom() {
+        return validFrom;
+    }
+
+    public LocalDateTime getValidTo() {
+        return validTo;
+    }
+}
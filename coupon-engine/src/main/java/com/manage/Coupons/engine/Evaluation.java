@@ -0,0 +1,10 @@
+package com.manage.Coupons.engine;
+
+public record Evaluation(boolean applicable, String message) {
+
+    public static final Evaluation APPLICABLE = new Evaluation(true, "Applicable");
+
+    public static Evaluation notApplicable(String reason) {
+        return new Evaluation(false, reason);
+    }
+}
@@ -0,0 +1,69 @@
+package com.manage.Coupons.engine;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public final class ProductWiseRule extends CouponRule {
+
+    private final Set<String> applicableProducts;
+    private final Double discountPercentage;
+    private final Double fixedDiscount;
+
+    public ProductWiseRule(Long id, String code, boolean active, LocalDateTime validFrom, LocalDateTime validTo,
+            Collection<String> applicableProducts, Double discountPercentage, Double fixedDiscount) {
+        super(id, code, active, validFrom, validTo);
+        this.applicableProducts = Set.copyOf(applicableProducts);
+        this.discountPercentage = discountPercentage;
+        this.fixedDiscount = fixedDiscount;
+    }
+
+    @Override
+    public RuleType type() {
+        return RuleType.PRODUCT_WISE;
+    }
+
+    @Override
+    public Evaluation evaluate(CartSnapshot cart) {
+        for (CartLine line : cart.lines()) {
+            if (line.quantity() > 0 && applicableProducts.contains(line.productId())) {
+                return Evaluation.APPLICABLE;
+            }
+        }
+        return Evaluation.notApplicable("No applicable products in cart");
+    }
+
+    @Override
+    public Application apply(CartSnapshot cart) {
+        List<CartLine> lines = cart.lines();
+        double[] prices = new double[lines.size()];
+        double total = 0;
+        for (int i = 0; i < prices.length; i++) {
+            CartLine line = lines.get(i);
+            double price = line.price();
+            if (applicableProducts.contains(line.productId())) {
+                if (discountPercentage != null) {
+                    price = price - price * (discountPercentage / 100);
+                } else if (fixedDiscount != null) {
+                    price = Math.max(0, price - fixedDiscount);
+                }
+            }
+            prices[i] = price;
+            total += price * line.quantity();
+        }
+        return new Application(prices, total);
+    }
+
+    public Set<String> getApplicableProducts() {
+        return applicableProducts;
+    }
+
+    public Double getDiscountPercentage() {
+        return discountPercentage;
+    }
+
+    public Double getFixedDiscount() {
+        return fixedDiscount;
+    }
+}
@@ -0,0 +1,5 @@
+package com.manage.Coupons.engine;
+
+public enum RuleType {
+    CART_WISE, PRODUCT_WISE, CATEGORY_WISE, BXGY
+}
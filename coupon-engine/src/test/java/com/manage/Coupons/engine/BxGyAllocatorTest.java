@@ -0,0 +1,136 @@
+package com.manage.Coupons.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BxGyAllocatorTest {
+
+    private CartLine createCartItem(String productId, double price, int quantity) {
+        return new CartLine(productId, price, quantity);
+    }
+
+    private BxGyRule createCoupon(List<String> buy, int buyQuantity, List<String> get, int getQuantity,
+            int repetitionLimit) {
+        return new BxGyRule(1L, "BXGY", true, null, null, buy, buyQuantity, get, getQuantity, repetitionLimit);
+    }
+
+    @Test
+    void testFreesCheapestGetUnitsRegardlessOfLineOrder() {
+        BxGyRule coupon = createCoupon(List.of("B"), 2, List.of("G1", "G2", "G3"), 1, 2);
+        List<CartLine> items = List.of(
+                createCartItem("G1", 50, 1),
+                createCartItem("B", 100, 4),
+                createCartItem("G2", 10, 1),
+                createCartItem("G3", 30, 1));
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, items);
+
+        assertEquals(2, allocation.repetitions());
+        assertArrayEquals(new int[] {0, 0, 1, 1}, allocation.freeUnits());
+        assertEquals(40.0, allocation.discount());
+    }
+
+    @Test
+    void testRespectsRepetitionLimit() {
+        BxGyRule coupon = createCoupon(List.of("B"), 1, List.of("G"), 1, 2);
+        List<CartLine> items = List.of(createCartItem("B", 100, 5), createCartItem("G", 20, 5));
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, items);
+
+        assertEquals(2, allocation.repetitions());
+        assertArrayEquals(new int[] {0, 2}, allocation.freeUnits());
+    }
+
+    @Test
+    void testFewerGetUnitsThanAllowance() {
+        BxGyRule coupon = createCoupon(List.of("B"), 2, List.of("G"), 3, 1);
+        List<CartLine> items = List.of(createCartItem("B", 100, 2), createCartItem("G", 20, 1));
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, items);
+
+        assertArrayEquals(new int[] {0, 1}, allocation.freeUnits());
+        assertEquals(20.0, allocation.discount());
+    }
+
+    @Test
+    void testOverlappingSetsKeepBuyUnitsPaid() {
+        // Buy 2 get 1 on the same product: of 3 units only one may be free
+        BxGyRule coupon = createCoupon(List.of("P"), 2, List.of("P"), 1, 5);
+        List<CartLine> items = List.of(createCartItem("P", 30, 3));
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, items);
+
+        assertEquals(1, allocation.repetitions());
+        assertArrayEquals(new int[] {1}, allocation.freeUnits());
+    }
+
+    @Test
+    void testOverlappingSetsReserveGetUnitsPerRepetition() {
+        // Buy 2 get 1 on the same product: 4 units make one full set plus one paid unit
+        BxGyRule coupon = createCoupon(List.of("P"), 2, List.of("P"), 1, 5);
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, List.of(createCartItem("P", 30, 4)));
+
+        assertEquals(1, allocation.repetitions());
+        assertArrayEquals(new int[] {1}, allocation.freeUnits());
+        assertEquals(30.0, allocation.discount());
+    }
+
+    @Test
+    void testOverlappingSetsRepeat() {
+        BxGyRule coupon = createCoupon(List.of("P"), 2, List.of("P"), 1, 5);
+
+        BxGyAllocation six = BxGyAllocator.allocate(coupon, List.of(createCartItem("P", 30, 6)));
+        BxGyAllocation nine = BxGyAllocator.allocate(coupon, List.of(createCartItem("P", 30, 9)));
+
+        assertEquals(2, six.repetitions());
+        assertArrayEquals(new int[] {2}, six.freeUnits());
+        assertEquals(3, nine.repetitions());
+        assertArrayEquals(new int[] {3}, nine.freeUnits());
+        assertEquals(90.0, nine.discount());
+    }
+
+    @Test
+    void testNotAppliedWithoutGetUnits() {
+        BxGyRule coupon = createCoupon(List.of("B"), 2, List.of("G"), 1, 1);
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, List.of(createCartItem("B", 100, 2)));
+
+        assertFalse(allocation.isApplied());
+        assertEquals(0.0, allocation.discount());
+    }
+
+    @Test
+    void testOverlapPrefersCheaperGetOnlyUnits() {
+        BxGyRule coupon = createCoupon(List.of("A", "B"), 2, List.of("B", "C"), 1, 1);
+        List<CartLine> items = List.of(
+                createCartItem("A", 100, 1),
+                createCartItem("B", 40, 2),
+                createCartItem("C", 60, 1));
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, items);
+
+        assertArrayEquals(new int[] {0, 1, 0}, allocation.freeUnits());
+        assertEquals(40.0, allocation.discount());
+    }
+
+    @Test
+    void testRejectsQuantitiesBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> createCoupon(List.of("B"), 0, List.of("G"), 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> createCoupon(List.of("B"), 1, List.of("G"), 0, 1));
+    }
+
+    @Test
+    void testBuyConditionNotMet() {
+        BxGyRule coupon = createCoupon(List.of("B"), 3, List.of("G"), 1, 1);
+        List<CartLine> items = List.of(createCartItem("B", 100, 2), createCartItem("G", 20, 1));
+
+        BxGyAllocation allocation = BxGyAllocator.allocate(coupon, items);
+
+        assertFalse(allocation.isApplied());
+        assertEquals(2, BxGyAllocator.countBuyUnits(coupon, items));
+    }
+}
@@ -0,0 +1,57 @@
+package com.manage.Coupons.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTreeTest {
+
+    private CategoryTree tree() {
+        Map<String, String> parents = new HashMap<>();
+        parents.put("ELECTRONICS", null);
+        parents.put("PHONES", "ELECTRONICS");
+        parents.put("SMARTPHONES", "PHONES");
+        parents.put("GROCERY", null);
+        return CategoryTree.of(parents, Map.of("IPHONE", "SMARTPHONES", "TV", "ELECTRONICS", "MILK", "GROCERY"));
+    }
+
+    @Test
+    void testProductIsUnderEveryAncestor() {
+        CategoryTree tree = tree();
+
+        assertTrue(tree.isProductUnder("IPHONE", tree.indexOf("SMARTPHONES")));
+        assertTrue(tree.isProductUnder("IPHONE", tree.indexOf("PHONES")));
+        assertTrue(tree.isProductUnder("IPHONE", tree.indexOf("ELECTRONICS")));
+        assertFalse(tree.isProductUnder("IPHONE", tree.indexOf("GROCERY")));
+        assertFalse(tree.isProductUnder("TV", tree.indexOf("PHONES")));
+        assertFalse(tree.isProductUnder("UNMAPPED", tree.indexOf("ELECTRONICS")));
+        assertFalse(tree.isProductUnder("IPHONE", tree.indexOf("UNKNOWN")));
+    }
+
+    @Test
+    void testRejectsCyclesAndUnknownParents() {
+        Map<String, String> cycle = Map.of("A", "B", "B", "A");
+        assertThrows(IllegalArgumentException.class, () -> CategoryTree.of(cycle, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> CategoryTree.of(Map.of("A", "MISSING"), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> CategoryTree.of(Collections.singletonMap("A", null), Map.of("P1", "B")));
+    }
+
+    @Test
+    void testCategoryWiseRuleDiscountsOnlyItemsUnderCategory() {
+        CategoryWiseRule rule = new CategoryWiseRule(1L, "ELEC10", true, null, null, tree(), "ELECTRONICS", 10.0, null);
+        CartSnapshot cart = CartSnapshot.of(List.of(
+                new CartLine("IPHONE", 1000, 1),
+                new CartLine("MILK", 2, 5)));
+
+        assertTrue(rule.evaluate(cart).applicable());
+        Application application = rule.apply(cart);
+        assertEquals(900.0, application.unitPrices()[0], 1e-9);
+        assertEquals(2.0, application.unitPrices()[1], 1e-9);
+        assertEquals(910.0, application.totalAmount(), 1e-9);
+
+        assertFalse(rule.evaluate(CartSnapshot.of(List.of(new CartLine("MILK", 2, 5)))).applicable());
+    }
+}
@@ -0,0 +1,62 @@
+package com.manage.Coupons.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponEngineTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 9, 15, 12, 0);
+
+    private final CartSnapshot cart = CartSnapshot.of(List.of(
+            new CartLine("P1", 100, 2),
+            new CartLine("P2", 50, 1)));
+
+    private CouponCatalog catalog() {
+        return CouponCatalog.of(1, List.of(
+                new CartWiseRule(1L, "CART10", true, NOW.minusDays(1), NOW.plusDays(1), 200, 10.0, null),
+                new CartWiseRule(2L, "BIG", true, null, null, 1000, 10.0, null),
+                new ProductWiseRule(3L, "P2HALF", true, null, null, List.of("P2"), 50.0, null),
+                new BxGyRule(4L, "B2G1", true, null, null, List.of("P1"), 2, List.of("P2"), 1, 1),
+                new CartWiseRule(5L, "EXPIRED", true, NOW.minusDays(10), NOW.minusDays(5), 0, 10.0, null)));
+    }
+
+    @Test
+    void testApplicableCouponsHonorsRulesAndValidity() {
+        CouponEngine engine = new CouponEngine(catalog());
+
+        List<Long> ids = engine.applicableCoupons(cart, NOW).stream().map(CouponRule::getId).toList();
+
+        assertEquals(List.of(1L, 3L, 4L), ids);
+    }
+
+    @Test
+    void testCartWiseApplication() {
+        Application application = catalog().findById(1L).apply(cart);
+
+        assertEquals(225.0, application.totalAmount(), 1e-9);
+        assertEquals(90.0, application.unitPrices()[0], 1e-9);
+        assertEquals(25.0, application.discount(cart), 1e-9);
+    }
+
+    @Test
+    void testProductWiseLeavesOtherLinesAtFullPrice() {
+        Application application = catalog().findById(3L).apply(cart);
+
+        assertArrayEquals(new double[] {100, 25}, application.unitPrices(), 1e-9);
+        assertEquals(225.0, application.totalAmount(), 1e-9);
+    }
+
+    @Test
+    void testApplyByCode() {
+        CouponEngine engine = new CouponEngine(catalog());
+
+        assertEquals(200.0, engine.applyByCode(" b2g1 ", cart, NOW).get().totalAmount(), 1e-9);
+        assertTrue(engine.applyByCode("EXPIRED", cart, NOW).isEmpty());
+        assertTrue(engine.applyByCode("BIG", cart, NOW).isEmpty());
+        assertTrue(engine.applyByCode("UNKNOWN", cart, NOW).isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares the exception-based apply endpoint with the outcome endpoint under a workload
+ * where most attempts are rejected (90% of carts miss the coupon's minimum).
+ *
+ * Start the service with admission control off, then run as a single-file program:
+ * <pre>
+ * java -jar coupons-app/target/Coupons-0.0.1-SNAPSHOT.jar --coupons.rate-limit.enabled=false \
+ *     --coupons.audit.enabled=false --spring.jpa.show-sql=false
+ * java coupons-app/bench/ApplyRejectionBenchmark.java [baseUrl] [requests] [threads]
+ * </pre>
+ */
+public class ApplyRejectionBenchmark {
+
+    private static final String COUPON = "{\"name\":\"Bench\",\"code\":\"BENCH%d\",\"type\":\"CART_WISE\","
+            + "\"active\":true,\"minCartAmount\":1000.0,\"discountPercentage\":10.0}";
+    private static final String ACCEPTED_CART =
+            "{\"cartId\":\"a\",\"items\":[{\"productId\":\"P1\",\"price\":600.0,\"quantity\":2}]}";
+    private static final String REJECTED_CART =
+            "{\"cartId\":\"r\",\"items\":[{\"productId\":\"P1\",\"price\":10.0,\"quantity\":1}]}";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        HttpClient client = HttpClient.newHttpClient();
+
+        String code = "BENCH" + System.nanoTime();
+        send(client, baseUrl + "/api/coupons", String.format(COUPON, System.nanoTime()).replaceFirst("BENCH\\d+", code));
+
+        String exceptions = baseUrl + "/api/coupons/apply-by-code/" + code;
+        String outcomes = exceptions + "/outcome";
+        // Warm both paths before measuring
+        run(client, exceptions, requests / 4, threads);
+        run(client, outcomes, requests / 4, threads);
+        for (int round = 1; round <= 3; round++) {
+            report("exception (round " + round + ")", run(client, exceptions, requests, threads), requests);
+            report("outcome   (round " + round + ")", run(client, outcomes, requests, threads), requests);
+        }
+    }
+
+    private static long[] run(HttpClient client, String url, int requests, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long[] latencies = new long[requests];
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < requests; i += threads) {
+                        long begin = System.nanoTime();
+                        send(client, url, i % 10 == 0 ? ACCEPTED_CART : REJECTED_CART);
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+        return new long[] { elapsed, latencies[requests / 2], latencies[requests * 99 / 100] };
+    }
+
+    private static void report(String name, long[] result, int requests) {
+        System.out.printf("%-22s %8.0f req/s   p50 %6d us   p99 %6d us%n", name,
+                requests * 1e9 / result[0], result[1] / 1000, result[2] / 1000);
+    }
+
+    private static int send(HttpClient client, String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,123 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applicable-coupon latency with and without {@code best=true} on a catalog where most
+ * coupons are dominated: cart-wise tiers with many weaker duplicates, and product-wise
+ * coupons repeated over the same product sets at lower percentages. Every cart is
+ * distinct so each request is evaluated rather than served from the applicability cache.
+ *
+ * Start the service with admission control off, then run as a single-file program:
+ * <pre>
+ * java -jar coupons-app/target/Coupons-0.0.1-SNAPSHOT.jar --coupons.rate-limit.enabled=false \
+ *     --coupons.audit.enabled=false --spring.jpa.show-sql=false
+ * java coupons-app/bench/DominancePruningBenchmark.java [baseUrl] [coupons] [requests] [threads]
+ * </pre>
+ */
+public class DominancePruningBenchmark {
+
+    private static final int TIERS = 10;
+    private static final int PRODUCT_SETS = 20;
+
+    private static final String CART_WISE = "{\"name\":\"Tier\",\"code\":\"T%d\",\"type\":\"CART_WISE\","
+            + "\"validFrom\":\"2020-01-01T00:00:00\",\"validTo\":\"2099-01-01T00:00:00\","
+            + "\"active\":true,\"minCartAmount\":%d.0,\"discountPercentage\":%d.0}";
+    private static final String PRODUCT_WISE = "{\"name\":\"Product\",\"code\":\"P%d\",\"type\":\"PRODUCT_WISE\","
+            + "\"validFrom\":\"2020-01-01T00:00:00\",\"validTo\":\"2099-01-01T00:00:00\","
+            + "\"active\":true,\"applicableProducts\":[\"SKU-%d\",\"SKU-%d\"],\"discountPercentage\":%d.0}";
+    private static final String CART = "{\"cartId\":\"c%d\",\"items\":[{\"productId\":\"SKU-%d\",\"price\":%d.%02d,"
+            + "\"quantity\":2},{\"productId\":\"SKU-%d\",\"price\":40.0,\"quantity\":3}]}";
+
+    private static final AtomicLong CARTS = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int coupons = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        HttpClient client = HttpClient.newHttpClient();
+        String tenant = "bench-" + System.nanoTime();
+
+        // The first coupon of each tier and product set is the strongest and each tier beats the one below;
+        // every later coupon is dominated
+        for (int i = 0; i < coupons; i++) {
+            int rank = i / (2 * Math.max(TIERS, PRODUCT_SETS));
+            String coupon = i % 2 == 0
+                    ? String.format(CART_WISE, i, (i / 2 % TIERS) * 100, Math.max(1, 20 + 3 * (i / 2 % TIERS) - rank))
+                    : String.format(PRODUCT_WISE, i, i / 2 % PRODUCT_SETS, i / 2 % PRODUCT_SETS + 1,
+                            Math.max(1, 50 - rank));
+            send(client, tenant, baseUrl + "/api/coupons", coupon);
+        }
+        String report = get(client, tenant, baseUrl + "/api/coupons/redundancy-report");
+        System.out.printf("%,d coupons, %,d dominated, %,d requests on %d threads%n", coupons,
+                report.split("\"couponId\":", -1).length - 1, requests, threads);
+
+        String all = baseUrl + "/api/coupons/applicable-coupons?view=slim";
+        String best = all + "&best=true";
+        run(client, tenant, all, requests / 4, threads);
+        run(client, tenant, best, requests / 4, threads);
+        for (int round = 1; round <= 3; round++) {
+            report("all coupons (round " + round + ")", run(client, tenant, all, requests, threads), requests);
+            report("best only   (round " + round + ")", run(client, tenant, best, requests, threads), requests);
+        }
+    }
+
+    private static long[] run(HttpClient client, String tenant, String url, int requests, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long[] latencies = new long[requests];
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < requests; i += threads) {
+                        long cart = CARTS.incrementAndGet();
+                        String body = String.format(CART, cart, cart % PRODUCT_SETS, 100 + cart % 500, cart % 100,
+                                (cart + 7) % PRODUCT_SETS);
+                        long begin = System.nanoTime();
+                        send(client, tenant, url, body);
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+        return new long[] { elapsed, latencies[requests / 2], latencies[requests * 99 / 100] };
+    }
+
+    private static void report(String name, long[] result, int requests) {
+        System.out.printf("%-24s %8.0f req/s   p50 %6d us   p99 %6d us%n", name,
+                requests * 1e9 / result[0], result[1] / 1000, result[2] / 1000);
+    }
+
+    private static int send(HttpClient client, String tenant, String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .header("X-Tenant-Id", tenant)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String get(HttpClient client, String tenant, String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("X-Tenant-Id", tenant).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
@@ -0,0 +1,173 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import com.manage.Coupons.index.PostingMatrix;
+
+/**
+ * Compares the off-heap product-to-coupon matrix with the on-heap map it replaces
+ * (product id to boxed coupon ids) for a large synthetic catalog: retained heap,
+ * collector activity while building and querying, and per-cart lookup latency.
+ *
+ * Build the app classes, then run as a single-file program:
+ * <pre>
+ * mvn -B -q -pl coupons-app -am compile
+ * java -Xmx2g -cp coupons-app/target/classes coupons-app/bench/ProductMatrixBenchmark.java \
+ *     [coupons] [products] [carts] [map|matrix]
+ * </pre>
+ * Heap figures are cleanest with one structure per JVM, so pass {@code map} or
+ * {@code matrix} and run twice; without it both run in one process.
+ */
+public class ProductMatrixBenchmark {
+
+    private static final int PRODUCTS_PER_COUPON = 3;
+    private static final int ITEMS_PER_CART = 5;
+
+    public static void main(String[] args) {
+        int coupons = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int carts = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+        String mode = args.length > 3 ? args[3] : "both";
+        System.out.printf("%,d coupons x %d products over %,d SKUs, %,d carts of %d items%n",
+                coupons, PRODUCTS_PER_COUPON, products, carts, ITEMS_PER_CART);
+
+        if (!mode.equals("matrix")) {
+            run("on-heap map", coupons, products, carts, ProductMatrixBenchmark::buildMap);
+        }
+        if (!mode.equals("map")) {
+            run("off-heap matrix", coupons, products, carts, ProductMatrixBenchmark::buildMatrix);
+        }
+    }
+
+    private static void run(String name, int coupons, int products, int carts,
+            Function<Catalog, Lookup> build) {
+        long heapBefore = usedHeapAfterGc();
+        long[] gcBefore = gcTotals();
+        Lookup lookup = build.apply(new Catalog(coupons, products));
+        long heapRetained = usedHeapAfterGc() - heapBefore;
+
+        long[] gcBuilt = gcTotals();
+        long[] latencies = new long[carts];
+        long matches = 0;
+        SplittableRandom random = new SplittableRandom(7);
+        String[] cart = new String[ITEMS_PER_CART];
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < carts; i++) {
+                for (int item = 0; item < cart.length; item++) {
+                    cart[item] = "SKU-" + random.nextInt(products);
+                }
+                long start = System.nanoTime();
+                matches += lookup.candidates(cart);
+                latencies[i] = System.nanoTime() - start;
+            }
+        }
+        long[] gcAfter = gcTotals();
+        Arrays.sort(latencies);
+
+        System.out.printf("%-16s heap %,7.1f MB  off-heap %,7.1f MB  build GC %3d (%,5d ms)  lookup GC %3d (%,5d ms)"
+                + "  p50 %,6.2f us  p99 %,6.2f us  (%,d matches)%n",
+                name, heapRetained / 1e6, lookup.offHeapBytes() / 1e6,
+                gcBuilt[0] - gcBefore[0], gcBuilt[1] - gcBefore[1],
+                gcAfter[0] - gcBuilt[0], gcAfter[1] - gcBuilt[1],
+                latencies[carts / 2] / 1e3, latencies[carts * 99 / 100] / 1e3, matches);
+    }
+
+    private static Lookup buildMap(Catalog catalog) {
+        Map<String, List<Long>> map = new HashMap<>();
+        catalog.forEach((product, id) -> map.computeIfAbsent(product, p -> new ArrayList<>()).add(id));
+        return new Lookup() {
+            public int candidates(String[] cart) {
+                int count = 0;
+                for (String product : cart) {
+                    List<Long> ids = map.get(product);
+                    if (ids != null) {
+                        for (Long id : ids) {
+                            count += id >= 0 ? 1 : 0;
+                        }
+                    }
+                }
+                return count;
+            }
+
+            public long offHeapBytes() {
+                return 0;
+            }
+        };
+    }
+
+    private static Lookup buildMatrix(Catalog catalog) {
+        PostingMatrix.Builder builder = new PostingMatrix.Builder();
+        catalog.forEach((product, id) -> builder.add(hash(product), id));
+        PostingMatrix matrix = builder.build();
+        return new Lookup() {
+            public int candidates(String[] cart) {
+                int count = 0;
+                for (String product : cart) {
+                    count += matrix.forEach(hash(product), id -> { });
+                }
+                return count;
+            }
+
+            public long offHeapBytes() {
+                return matrix.offHeapBytes();
+            }
+        };
+    }
+
+    // Same FNV-1a variant the index keys products with
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 29);
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, millis };
+    }
+
+    private interface Lookup {
+        int candidates(String[] cart);
+
+        long offHeapBytes();
+    }
+
+    private interface Relation {
+        void accept(String product, long couponId);
+    }
+
+    // The same catalog for both runs: each coupon names a few SKUs, skewed towards popular ones
+    private record Catalog(int coupons, int products) {
+        void forEach(Relation relation) {
+            SplittableRandom random = new SplittableRandom(42);
+            for (long id = 1; id <= coupons; id++) {
+                for (int i = 0; i < PRODUCTS_PER_COUPON; i++) {
+                    int sku = random.nextInt(4) == 0 ? random.nextInt(products / 100) : random.nextInt(products);
+                    relation.accept("SKU-" + sku, id);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.manage.Coupons.dto.ApplicableCouponResponse;
+import com.manage.Coupons.dto.ApplicableCouponSummary;
+import com.manage.Coupons.dto.CouponDTO;
+import com.manage.Coupons.model.CouponType;
+
+/**
+ * Serialization cost and size of an /applicable-coupons response in each representation the
+ * endpoint can negotiate: full or slim view, JSON (as configured by default) or CBOR with
+ * nulls omitted.
+ *
+ * Build the app and its classpath, then run as a single-file program:
+ * <pre>
+ * mvn -B -q install -DskipTests
+ * mvn -B -q -pl coupons-app dependency:build-classpath -Dmdep.outputFile=/tmp/coupons.cp
+ * java -cp coupons-app/target/classes:$(cat /tmp/coupons.cp) coupons-app/bench/WireFormatBenchmark.java [coupons] [iterations]
+ * </pre>
+ */
+public class WireFormatBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int coupons = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        ObjectMapper json = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        ObjectMapper cbor = CBORMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL).build();
+        List<ApplicableCouponResponse> full = response(coupons);
+        List<ApplicableCouponSummary> slim = full.stream().map(ApplicableCouponSummary::of).toList();
+
+        System.out.printf("%d applicable coupons per response, %,d serializations per round%n", coupons, iterations);
+        for (int round = 1; round <= 3; round++) {
+            System.out.println("round " + round);
+            report("full json", json, full, iterations);
+            report("full cbor", cbor, full, iterations);
+            report("slim json", json, slim, iterations);
+            report("slim cbor", cbor, slim, iterations);
+        }
+    }
+
+    private static void report(String name, ObjectMapper mapper, Object value, int iterations) throws Exception {
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes += mapper.writeValueAsBytes(value).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %-10s %,6d bytes  %,8.2f us/response%n", name, bytes / iterations,
+                elapsed / 1e3 / iterations);
+    }
+
+    // A realistic mix: mostly cart-wise and product-wise coupons, some BxGy
+    private static List<ApplicableCouponResponse> response(int coupons) {
+        List<ApplicableCouponResponse> responses = new ArrayList<>();
+        for (int i = 0; i < coupons; i++) {
+            CouponDTO coupon = new CouponDTO();
+            coupon.setId(100_000L + i);
+            coupon.setName("Campaign coupon " + i);
+            coupon.setCode("CAMPAIGN" + i);
+            coupon.setDescription("Seasonal campaign discount number " + i);
+            coupon.setValidFrom(LocalDateTime.of(2026, 1, 1, 0, 0));
+            coupon.setValidTo(LocalDateTime.of(2026, 12, 31, 23, 59));
+            coupon.setActive(true);
+            switch (i % 4) {
+                case 0, 1 -> {
+                    coupon.setType(CouponType.CART_WISE);
+                    coupon.setMinCartAmount(100.0);
+                    coupon.setDiscountPercentage(10.0);
+                }
+                case 2 -> {
+                    coupon.setType(CouponType.PRODUCT_WISE);
+                    coupon.setApplicableProducts(List.of("SKU-" + i, "SKU-" + (i + 1)));
+                    coupon.setDiscountPercentage(15.0);
+                }
+                default -> {
+                    coupon.setType(CouponType.BXGY);
+                    coupon.setBuyProducts(List.of("SKU-" + i));
+                    coupon.setBuyQuantity(2);
+                    coupon.setGetProducts(List.of("SKU-" + (i + 2)));
+                    coupon.setGetQuantity(1);
+                    coupon.setRepetitionLimit(2);
+                }
+            }
+            ApplicableCouponResponse response = new ApplicableCouponResponse();
+            response.setCoupon(coupon);
+            response.setMessage("Applicable");
+            response.setIsCouponApplicable(true);
+            response.setSavings(12.5 + i);
+            responses.add(response);
+        }
+        return responses;
+    }
+}
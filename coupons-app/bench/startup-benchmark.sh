@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first successful POST /api/coupons/applicable-coupons,
+# default mode (plain fat jar) vs. fast-startup mode (Spring AOT + AppCDS archive).
+#
+# Build first:  mvn -Pfast-startup -DskipTests install
+# Usage:        coupons-app/bench/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+APP_DIR=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$APP_DIR"/target/Coupons-*.jar | grep -v original | head -1)
+FAST_DIR="$APP_DIR/target/fast-startup"
+PORT=${PORT:-18080}
+CART='{"id":"bench","items":[{"productId":"P1","price":100.0,"quantity":2}]}'
+# Admission control would otherwise reject the polling loop
+APP_ARGS="--server.port=$PORT --coupons.rate-limit.enabled=false --coupons.audit.enabled=false --spring.jpa.show-sql=false"
+
+if [[ ! -f "$FAST_DIR/application.jsa" ]]; then
+    echo "No CDS archive in $FAST_DIR; build with: mvn -Pfast-startup -DskipTests install" >&2
+    exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints milliseconds until the endpoint first answers 200
+time_to_first_request() {
+    local dir=$1; shift
+    local started pid
+    started=$(now_ms)
+    (cd "$dir" && exec java "$@" $APP_ARGS >/dev/null 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null -X POST -H 'Content-Type: application/json' -d "$CART" \
+            "http://localhost:$PORT/api/coupons/applicable-coupons"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited before serving a request" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    echo $(( $(now_ms) - started ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+run_mode() {
+    local name=$1; shift
+    local samples=()
+    for ((i = 1; i <= RUNS; i++)); do
+        samples+=("$(time_to_first_request "$@")")
+    done
+    printf '%-14s median %6d ms   runs: %s\n' "$name" "$(printf '%s\n' "${samples[@]}" | median)" "${samples[*]}"
+}
+
+run_mode default "$APP_DIR" -jar "$JAR"
+run_mode fast-startup "$FAST_DIR" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    -jar "$(basename "$JAR")"
@@ -0,0 +1,326 @@
+package com.manage.Coupons.analysis;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.manage.Coupons.config.AnalysisProperties;
+import com.manage.Coupons.dto.DominanceReport;
+import com.manage.Coupons.model.CouponType;
+import com.manage.Coupons.repository.CouponRepository;
+import com.manage.Coupons.service.CatalogVersion;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds coupons made redundant by others in the same tenant's active catalog. Coupon A
+ * dominates B when every cart B applies to, A applies to as well and saves at least as
+ * much on. Only provable cases are recognised, between coupons of one type with the
+ * same validity window and the same discount kind:
+ * <ul>
+ * <li>cart-wise: a minimum no higher and a discount no lower</li>
+ * <li>product-wise: the same product set and a discount no lower</li>
+ * <li>BxGy: the same buy and get sets, kept disjoint, and a buy quantity no higher, get
+ * quantity and repetition limit no lower. With overlapping sets the same units can pay
+ * for the buy side or be given away, so which units end up free depends on the whole
+ * cart and those coupons are never compared.</li>
+ * </ul>
+ * Exact ties are broken by id, so of two identical coupons the older one survives.
+ *
+ * Analysis runs in the background, debounced, after each catalog write. A result is
+ * only used for pruning while the tenant's catalog version still matches the one it
+ * was computed at.
+ */
+@Component
+@Slf4j
+public class CouponDominanceAnalyzer {
+
+    // Pairwise BxGy comparison is quadratic, so larger groups are left unanalyzed
+    static final int MAX_PAIRWISE_GROUP = 2048;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private AnalysisProperties analysisProperties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<String, Analysis> analyses = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        if (!analysisProperties.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "coupon-dominance-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // Coalesces bursts of writes to a tenant into one analysis
+    public void schedule(String tenantId) {
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler == null || !pending.add(tenantId)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            pending.remove(tenantId);
+            try {
+                analyze(tenantId);
+            } catch (RuntimeException e) {
+                log.warn("Dominance analysis failed for tenant {}", tenantId, e);
+            }
+        }, analysisProperties.getDebounce().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Ids safe to skip when only the best options are wanted; empty while the analysis is behind the catalog
+    public Set<Long> dominated(String tenantId) {
+        Analysis analysis = analyses.get(tenantId);
+        if (analysis == null || analysis.report().catalogVersion() != catalogVersion.current(tenantId)) {
+            return Set.of();
+        }
+        return analysis.dominatedIds();
+    }
+
+    public DominanceReport report(String tenantId) {
+        Analysis analysis = analyses.get(tenantId);
+        if (analysis == null || analysis.report().catalogVersion() != catalogVersion.current(tenantId)) {
+            analysis = analyze(tenantId);
+        }
+        return analysis.report();
+    }
+
+    private Analysis analyze(String tenantId) {
+        // Versions are bumped after writes commit, so the coupons loaded next reflect at least this version
+        long version = catalogVersion.current(tenantId);
+        Analysis analysis = transactionTemplate.execute(status -> {
+            try (Stream<CouponTerms> coupons = couponRepository.streamActiveTerms(tenantId)) {
+                return analyze(tenantId, version, coupons);
+            }
+        });
+        analyses.merge(tenantId, analysis, (current, fresh) ->
+                fresh.report().catalogVersion() >= current.report().catalogVersion() ? fresh : current);
+        return analysis;
+    }
+
+    // Takes the tenant's active coupons
+    static Analysis analyze(String tenantId, long version, Stream<CouponTerms> coupons) {
+        Map<GroupKey, List<Candidate>> groups = new HashMap<>();
+        int analyzed = 0;
+        for (CouponTerms coupon : (Iterable<CouponTerms>) coupons::iterator) {
+            if (coupon.id() == null) {
+                continue;
+            }
+            analyzed++;
+            Candidate candidate = Candidate.of(coupon);
+            if (candidate != null) {
+                groups.computeIfAbsent(candidate.key(), k -> new ArrayList<>()).add(candidate);
+            }
+        }
+
+        List<DominanceReport.DominatedCoupon> dominated = new ArrayList<>();
+        List<DominanceReport.OverlapGroup> overlaps = new ArrayList<>();
+        Set<Long> dominatedIds = new HashSet<>();
+        for (Map.Entry<GroupKey, List<Candidate>> group : groups.entrySet()) {
+            List<Candidate> members = group.getValue();
+            if (members.size() < 2) {
+                continue;
+            }
+            Map<Candidate, Candidate> dominators = switch (group.getKey().type()) {
+                case CART_WISE -> sweepByMinimum(members);
+                case BXGY -> members.size() <= MAX_PAIRWISE_GROUP ? comparePairwise(members) : Map.of();
+                default -> keepBest(members);
+            };
+            List<Long> survivors = new ArrayList<>();
+            for (Candidate member : members) {
+                Candidate dominator = dominators.get(member);
+                if (dominator == null) {
+                    survivors.add(member.id());
+                    continue;
+                }
+                dominatedIds.add(member.id());
+                dominated.add(new DominanceReport.DominatedCoupon(member.id(), member.code(), dominator.id(),
+                        dominator.code(),
+                        dominator.describe() + " vs " + member.describe()));
+            }
+            if (survivors.size() > 1) {
+                Collections.sort(survivors);
+                overlaps.add(new DominanceReport.OverlapGroup(group.getKey().type(),
+                        group.getKey().products().stream().sorted().toList(), survivors));
+            }
+        }
+        dominated.sort(Comparator.comparing(DominanceReport.DominatedCoupon::couponId));
+        overlaps.sort(Comparator.comparing(o -> o.couponIds().get(0)));
+        return new Analysis(new DominanceReport(tenantId, version, LocalDateTime.now(), analyzed,
+                List.copyOf(dominated), List.copyOf(overlaps)), Set.copyOf(dominatedIds));
+    }
+
+    // Ascending minimum: each coupon is dominated by the best discount seen at a minimum no higher than its own
+    private static Map<Candidate, Candidate> sweepByMinimum(List<Candidate> members) {
+        List<Candidate> sorted = new ArrayList<>(members);
+        sorted.sort(Comparator.comparingDouble(Candidate::threshold)
+                .thenComparing(Comparator.comparingDouble(Candidate::value).reversed())
+                .thenComparingLong(Candidate::id));
+        Map<Candidate, Candidate> dominators = new IdentityHashMap<>();
+        Candidate best = null;
+        for (Candidate candidate : sorted) {
+            if (best != null && best.value() >= candidate.value()) {
+                dominators.put(candidate, best);
+            } else {
+                best = candidate;
+            }
+        }
+        return dominators;
+    }
+
+    private static Map<Candidate, Candidate> keepBest(List<Candidate> members) {
+        Candidate best = Collections.min(members, Comparator.comparingDouble(Candidate::value).reversed()
+                .thenComparingLong(Candidate::id));
+        Map<Candidate, Candidate> dominators = new IdentityHashMap<>();
+        for (Candidate candidate : members) {
+            if (candidate != best) {
+                dominators.put(candidate, best);
+            }
+        }
+        return dominators;
+    }
+
+    private static Map<Candidate, Candidate> comparePairwise(List<Candidate> members) {
+        Set<Candidate> dominatedMembers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Candidate candidate : members) {
+            for (Candidate other : members) {
+                if (other != candidate && other.dominates(candidate)) {
+                    dominatedMembers.add(candidate);
+                    break;
+                }
+            }
+        }
+        // Dominance is transitive, so some surviving coupon dominates each dominated one
+        Map<Candidate, Candidate> dominators = new IdentityHashMap<>();
+        for (Candidate candidate : dominatedMembers) {
+            for (Candidate other : members) {
+                if (!dominatedMembers.contains(other) && other.dominates(candidate)) {
+                    dominators.put(candidate, other);
+                    break;
+                }
+            }
+        }
+        return dominators;
+    }
+
+    record Analysis(DominanceReport report, Set<Long> dominatedIds) {
+    }
+
+    // Coupons are only comparable within one key
+    private record GroupKey(CouponType type, String terms, LocalDateTime validFrom, LocalDateTime validTo,
+            Set<String> products, Set<String> getProducts) {
+    }
+
+    /**
+     * A coupon reduced to what dominance compares: {@code value} is the discount (unused for
+     * BxGy), {@code threshold} the cart-wise minimum.
+     */
+    private record Candidate(long id, String code, GroupKey key, double value, double threshold, int buyQuantity,
+            int getQuantity, int repetitionLimit) {
+
+        // Discount precedence mirrors the rules: fixed first for cart-wise, percentage first for product-wise
+        static Candidate of(CouponTerms coupon) {
+            if ("CART_WISE".equals(coupon.couponType())) {
+                boolean fixed = coupon.cartFixedDiscount() != null;
+                Double value = fixed ? coupon.cartFixedDiscount() : coupon.cartDiscountPercentage();
+                if (value == null) {
+                    return null;
+                }
+                double minimum = coupon.minCartAmount() == null ? 0 : coupon.minCartAmount();
+                return new Candidate(coupon.id(), coupon.code(), key(coupon, CouponType.CART_WISE,
+                        fixed ? "fixed" : "percentage", Set.of(), Set.of()), value, minimum, 0, 0, 0);
+            }
+            if ("PRODUCT_WISE".equals(coupon.couponType())) {
+                boolean percentage = coupon.productDiscountPercentage() != null;
+                Double value = percentage ? coupon.productDiscountPercentage() : coupon.productFixedDiscount();
+                if (value == null || coupon.applicableProducts() == null) {
+                    return null;
+                }
+                return new Candidate(coupon.id(), coupon.code(), key(coupon, CouponType.PRODUCT_WISE,
+                        percentage ? "percentage" : "fixed", Set.copyOf(coupon.applicableProducts()), Set.of()),
+                        value, 0, 0, 0, 0);
+            }
+            if ("BXGY".equals(coupon.couponType())) {
+                if (coupon.buyProducts() == null || coupon.getProducts() == null) {
+                    return null;
+                }
+                Set<String> buy = Set.copyOf(coupon.buyProducts());
+                Set<String> get = Set.copyOf(coupon.getProducts());
+                if (!Collections.disjoint(buy, get)) {
+                    return null;
+                }
+                return new Candidate(coupon.id(), coupon.code(), key(coupon, CouponType.BXGY, "bxgy", buy, get),
+                        0, 0, coupon.buyQuantity() == null ? Integer.MAX_VALUE : coupon.buyQuantity(),
+                        coupon.getQuantity() == null ? 0 : coupon.getQuantity(),
+                        coupon.repetitionLimit() == null ? 1 : coupon.repetitionLimit());
+            }
+            return null;
+        }
+
+        private static GroupKey key(CouponTerms coupon, CouponType type, String terms, Set<String> products,
+                Set<String> getProducts) {
+            return new GroupKey(type, terms, coupon.validFrom(), coupon.validTo(), products, getProducts);
+        }
+
+        boolean dominates(Candidate other) {
+            if (buyQuantity > other.buyQuantity || getQuantity < other.getQuantity
+                    || repetitionLimit < other.repetitionLimit) {
+                return false;
+            }
+            boolean identical = buyQuantity == other.buyQuantity && getQuantity == other.getQuantity
+                    && repetitionLimit == other.repetitionLimit;
+            return !identical || id < other.id;
+        }
+
+        String describe() {
+            return switch (key.type()) {
+                case CART_WISE -> (key.terms().equals("fixed") ? value + " off" : value + "% off")
+                        + " carts from " + threshold;
+                case BXGY -> "buy " + buyQuantity + " get " + getQuantity + ", up to " + repetitionLimit + " times";
+                default -> (key.terms().equals("fixed") ? value + " off each unit" : value + "% off")
+                        + " of the same products";
+            };
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.manage.Coupons.analysis;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+
+/**
+ * The columns dominance analysis compares, projected straight from the coupon table so
+ * an analysis never loads entities. Terms of other coupon types are null.
+ */
+public record CouponTerms(Long id, String code, String couponType, LocalDateTime validFrom, LocalDateTime validTo,
+        Double minCartAmount, Double cartDiscountPercentage, Double cartFixedDiscount,
+        List<String> applicableProducts, Double productDiscountPercentage, Double productFixedDiscount,
+        List<String> buyProducts, Integer buyQuantity, List<String> getProducts, Integer getQuantity,
+        Integer repetitionLimit) {
+
+    public static CouponTerms of(Coupon coupon) {
+        CartWiseCoupon cartWise = coupon instanceof CartWiseCoupon c ? c : null;
+        ProductWiseCoupon productWise = coupon instanceof ProductWiseCoupon p ? p : null;
+        BxGyCoupon bxgy = coupon instanceof BxGyCoupon b ? b : null;
+        return new CouponTerms(coupon.getId(), coupon.getCode(), discriminator(coupon),
+                coupon.getValidFrom(), coupon.getValidTo(),
+                cartWise == null ? null : cartWise.getMinCartAmount(),
+                cartWise == null ? null : cartWise.getDiscountPercentage(),
+                cartWise == null ? null : cartWise.getFixedDiscount(),
+                productWise == null ? null : productWise.getApplicableProducts(),
+                productWise == null ? null : productWise.getDiscountPercentage(),
+                productWise == null ? null : productWise.getFixedDiscount(),
+                bxgy == null ? null : bxgy.getBuyProducts(),
+                bxgy == null ? null : bxgy.getBuyQuantity(),
+                bxgy == null ? null : bxgy.getGetProducts(),
+                bxgy == null ? null : bxgy.getGetQuantity(),
+                bxgy == null ? null : bxgy.getRepetitionLimit());
+    }
+
+    // The discriminator column is only populated once a coupon has been read back
+    private static String discriminator(Coupon coupon) {
+        if (coupon instanceof CartWiseCoupon) {
+            return "CART_WISE";
+        }
+        if (coupon instanceof ProductWiseCoupon) {
+            return "PRODUCT_WISE";
+        }
+        return coupon instanceof BxGyCoupon ? "BXGY" : coupon.getCouponType();
+    }
+}
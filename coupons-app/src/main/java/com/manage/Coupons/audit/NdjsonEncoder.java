@@ -0,0 +1,83 @@
+package com.manage.Coupons.audit;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes redemption events as NDJSON straight into a byte buffer, without building
+ * intermediate Strings or going through an ObjectMapper.
+ */
+final class NdjsonEncoder {
+
+    private NdjsonEncoder() {
+    }
+
+    // Worst case per char is a 6 byte \\uXXXX escape
+    static int maxEncodedSize(RedemptionEvent event) {
+        return 192 + 6 * (length(event.couponCode()) + length(event.couponType()) + length(event.cartId()));
+    }
+
+    static void encode(RedemptionEvent event, ByteBuffer out) {
+        ascii(out, "{\"timestamp\":");
+        ascii(out, Long.toString(event.timestamp()));
+        ascii(out, ",\"couponId\":");
+        ascii(out, String.valueOf(event.couponId()));
+        ascii(out, ",\"couponCode\":");
+        string(out, event.couponCode());
+        ascii(out, ",\"couponType\":");
+        string(out, event.couponType());
+        ascii(out, ",\"cartId\":");
+        string(out, event.cartId());
+        ascii(out, ",\"totalBefore\":");
+        number(out, event.totalBefore());
+        ascii(out, ",\"totalAfter\":");
+        number(out, event.totalAfter());
+        ascii(out, "}\n");
+    }
+
+    // JSON has no NaN or Infinity literals
+    private static void number(ByteBuffer out, double value) {
+        ascii(out, Double.isFinite(value) ? Double.toString(value) : "null");
+    }
+
+    private static void string(ByteBuffer out, String value) {
+        if (value == null) {
+            ascii(out, "null");
+            return;
+        }
+        out.put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                ascii(out, String.format("\\u%04x", (int) c));
+            } else if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)))
+                        .put((byte) (0x80 | ((cp >> 12) & 0x3F)))
+                        .put((byte) (0x80 | ((cp >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)))
+                        .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                        .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private static void ascii(ByteBuffer out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            out.put((byte) value.charAt(i));
+        }
+    }
+
+    private static int length(String value) {
+        return value == null ? 4 : value.length() + 2;
+    }
+}
@@ -0,0 +1,241 @@
+package com.manage.Coupons.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.config.AuditProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only redemption log. {@link #record} is a single non-blocking enqueue; a
+ * background thread drains the ring buffer in batches, encodes them into one reusable
+ * direct buffer and appends it to the current segment file.
+ *
+ * A failed write abandons the segment, counts the lost events as failed and backs the
+ * writer off before it opens a fresh segment; the writer itself keeps running.
+ */
+@Component
+@Slf4j
+public class RedemptionAuditLog {
+
+    static final String SEGMENT_PREFIX = "redemptions-";
+    static final String SEGMENT_SUFFIX = ".ndjson";
+
+    @Autowired
+    private AuditProperties auditProperties;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private RingBuffer<RedemptionEvent> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private ByteBuffer batchBuffer;
+    private FileChannel segment;
+    private long segmentBytes;
+    private int segmentSequence;
+    private int buffered;
+    private boolean writeFailed;
+
+    @PostConstruct
+    public void start() {
+        if (!auditProperties.isEnabled()) {
+            return;
+        }
+        buffer = new RingBuffer<>(auditProperties.getBufferCapacity());
+        batchBuffer = ByteBuffer.allocateDirect(256 * 1024);
+        running = true;
+        writer = new Thread(this::drainLoop, "redemption-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    public boolean record(RedemptionEvent event) {
+        if (buffer == null) {
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void drainLoop() {
+        long idleNanos = auditProperties.getFlushInterval().toNanos();
+        long maxBackoffNanos = Math.max(idleNanos, auditProperties.getMaxRetryBackoff().toNanos());
+        long backoffNanos = idleNanos;
+        try {
+            while (running) {
+                int drained = writeBatch();
+                if (writeFailed) {
+                    LockSupport.parkNanos(this, backoffNanos);
+                    backoffNanos = Math.min(maxBackoffNanos, backoffNanos * 2);
+                } else {
+                    backoffNanos = idleNanos;
+                    if (drained == 0) {
+                        LockSupport.parkNanos(this, idleNanos);
+                    }
+                }
+            }
+            while (writeBatch() > 0) {
+                // flush whatever was enqueued before shutdown
+            }
+        } catch (RuntimeException e) {
+            log.error("Redemption audit writer stopped", e);
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private int writeBatch() {
+        writeFailed = false;
+        int drained = buffer.drainTo(this::append, auditProperties.getBatchSize());
+        if (drained > 0 && flush() && auditProperties.getFsync() == AuditProperties.FsyncPolicy.PER_BATCH) {
+            force();
+        }
+        return drained;
+    }
+
+    private void append(RedemptionEvent event) {
+        int needed = NdjsonEncoder.maxEncodedSize(event);
+        if (batchBuffer.remaining() < needed) {
+            flush();
+            if (batchBuffer.capacity() < needed) {
+                batchBuffer = ByteBuffer.allocateDirect(needed);
+            }
+        }
+        NdjsonEncoder.encode(event, batchBuffer);
+        buffered++;
+    }
+
+    private boolean flush() {
+        batchBuffer.flip();
+        long segmentStart = segmentBytes;
+        try {
+            if (batchBuffer.hasRemaining()) {
+                FileChannel channel = segmentFor(batchBuffer.remaining());
+                segmentStart = segmentBytes;
+                while (batchBuffer.hasRemaining()) {
+                    segmentBytes += channel.write(batchBuffer);
+                }
+            }
+            written.addAndGet(buffered);
+            return true;
+        } catch (IOException e) {
+            failed.addAndGet(buffered);
+            log.warn("Could not write {} redemption audit events", buffered, e);
+            abandonSegment(segmentStart);
+            return false;
+        } finally {
+            batchBuffer.clear();
+            buffered = 0;
+        }
+    }
+
+    private FileChannel segmentFor(int bytes) throws IOException {
+        if (segment != null && segmentBytes > 0 && segmentBytes + bytes > auditProperties.getMaxSegmentBytes()) {
+            if (auditProperties.getFsync() == AuditProperties.FsyncPolicy.ON_ROTATE) {
+                force();
+            }
+            closeSegment();
+        }
+        if (segment == null) {
+            Path directory = Paths.get(auditProperties.getDirectory());
+            Files.createDirectories(directory);
+            String name = SEGMENT_PREFIX + System.currentTimeMillis() + "-" + (segmentSequence++) + SEGMENT_SUFFIX;
+            segment = FileChannel.open(directory.resolve(name),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentBytes = 0;
+        }
+        return segment;
+    }
+
+    private void force() {
+        try {
+            if (segment != null) {
+                segment.force(false);
+            }
+        } catch (IOException e) {
+            log.warn("Could not sync redemption audit segment", e);
+            abandonSegment(segmentBytes);
+        }
+    }
+
+    // Cuts a partial batch off the segment so it stays line-aligned, then moves on to a new one
+    private void abandonSegment(long validBytes) {
+        writeFailed = true;
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.truncate(validBytes);
+        } catch (IOException e) {
+            log.warn("Could not truncate redemption audit segment", e);
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close redemption audit segment", e);
+        }
+        segment = null;
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            if (auditProperties.getFsync() != AuditProperties.FsyncPolicy.NEVER) {
+                segment.force(false);
+            }
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close redemption audit segment", e);
+        }
+        segment = null;
+    }
+}
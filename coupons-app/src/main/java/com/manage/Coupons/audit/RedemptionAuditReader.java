@@ -0,0 +1,96 @@
+package com.manage.Coupons.audit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Replays the segment files written by {@link RedemptionAuditLog}, oldest first.
+ */
+public class RedemptionAuditReader {
+
+    private final Path directory;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RedemptionAuditReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public void replay(Consumer<RedemptionEvent> consumer) {
+        for (Path segment : segments()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line = reader.readLine();
+                while (line != null) {
+                    String next = reader.readLine();
+                    if (!line.isBlank()) {
+                        RedemptionEvent event;
+                        try {
+                            event = objectMapper.readValue(line, RedemptionEvent.class);
+                        } catch (JsonProcessingException e) {
+                            // A crash mid-append leaves a torn final line; the writer starts a new
+                            // segment on restart, so this can be the end of any segment
+                            if (next == null) {
+                                break;
+                            }
+                            throw e;
+                        }
+                        consumer.accept(event);
+                    }
+                    line = next;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public Map<Long, CouponRedemptionSummary> summarizeByCoupon() {
+        Map<Long, CouponRedemptionSummary> summaries = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        replay(event -> summaries.merge(event.couponId(),
+                new CouponRedemptionSummary(1, event.discount()), CouponRedemptionSummary::plus));
+        return summaries;
+    }
+
+    List<Path> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(RedemptionAuditLog.SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(RedemptionAuditLog.SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparing(RedemptionAuditReader::segmentOrder))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Segment names are redemptions-<millis>-<sequence>.ndjson
+    private static String segmentOrder(Path segment) {
+        String name = segment.getFileName().toString();
+        String[] parts = name.substring(RedemptionAuditLog.SEGMENT_PREFIX.length(),
+                name.length() - RedemptionAuditLog.SEGMENT_SUFFIX.length()).split("-");
+        return String.format("%020d-%010d", Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    public record CouponRedemptionSummary(long redemptions, double totalDiscount) {
+
+        CouponRedemptionSummary plus(CouponRedemptionSummary other) {
+            return new CouponRedemptionSummary(redemptions + other.redemptions, totalDiscount + other.totalDiscount);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.manage.Coupons.audit;
+
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.Coupon;
+
+public record RedemptionEvent(
+        long timestamp,
+        Long couponId,
+        String couponCode,
+        String couponType,
+        String cartId,
+        double totalBefore,
+        double totalAfter) {
+
+    public static RedemptionEvent of(Coupon coupon, Cart cart, Cart updatedCart) {
+        return new RedemptionEvent(
+                System.currentTimeMillis(),
+                coupon.getId(),
+                coupon.getCode(),
+                coupon.getType() == null ? null : coupon.getType().name(),
+                cart.getId(),
+                cart.getTotalAmount() == null ? 0 : cart.getTotalAmount(),
+                updatedCart.getTotalAmount() == null ? 0 : updatedCart.getTotalAmount());
+    }
+
+    public double discount() {
+        return totalBefore - totalAfter;
+    }
+}
@@ -0,0 +1,194 @@
+package com.manage.Coupons.cache;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.config.CacheProperties;
+import com.manage.Coupons.dto.ApplicableCouponResponse;
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.service.CatalogVersion;
+
+/**
+ * Bounded memo of applicable-coupon results keyed by cart fingerprint and catalog
+ * version. Concurrent misses for the same key share a single computation.
+ *
+ * Each tenant has its own partition, bounded and invalidated by that tenant's catalog
+ * version alone, and created only for tenants known to {@link CatalogVersion}. Callers
+ * always receive their own copies of the cached responses.
+ */
+@Component
+public class ApplicabilityCache {
+
+    private final ConcurrentMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CacheProperties cacheProperties;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    public List<ApplicableCouponResponse> get(String tenantId, Cart cart, long catalogVersion, Supplier<Entry> loader) {
+        if (!cacheProperties.getApplicability().isEnabled()) {
+            return loader.get().responses();
+        }
+        Partition partition = partition(tenantId);
+        if (partition == null || !partition.admit(catalogVersion)) {
+            // Unknown tenant, or read an older catalog than the partition already holds
+            return loader.get().responses();
+        }
+        ConcurrentMap<Key, CompletableFuture<Entry>> entries = partition.entries;
+
+        Key key = new Key(CartFingerprint.of(cart), catalogVersion);
+        while (true) {
+            CompletableFuture<Entry> future = entries.get(key);
+            if (future == null) {
+                CompletableFuture<Entry> created = new CompletableFuture<>();
+                future = entries.putIfAbsent(key, created);
+                if (future == null) {
+                    evictIfFull(entries);
+                    return copyOf(compute(entries, key, created, loader).responses());
+                }
+            }
+            Entry entry = await(future);
+            if (entry != null && !entry.isExpired(LocalDateTime.now())) {
+                return copyOf(entry.responses());
+            }
+            entries.remove(key, future);
+        }
+    }
+
+    // A finished, unexpired result if one is cached; never waits on an in-flight evaluation
+    public Optional<List<ApplicableCouponResponse>> peek(String tenantId, Cart cart, long catalogVersion) {
+        Partition partition = partitions.get(tenantId);
+        if (!cacheProperties.getApplicability().isEnabled() || partition == null) {
+            return Optional.empty();
+        }
+        CompletableFuture<Entry> future = partition.entries.get(new Key(CartFingerprint.of(cart), catalogVersion));
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        Entry entry = future.join();
+        return entry.isExpired(LocalDateTime.now()) ? Optional.empty() : Optional.of(copyOf(entry.responses()));
+    }
+
+    // Caches a result computed outside get, unless one is already cached or being computed
+    public void offer(String tenantId, Cart cart, long catalogVersion, Entry entry) {
+        if (!cacheProperties.getApplicability().isEnabled()) {
+            return;
+        }
+        Partition partition = partition(tenantId);
+        if (partition == null || !partition.admit(catalogVersion)) {
+            return;
+        }
+        // The caller keeps its own instances; the cache holds a private copy
+        Entry copy = new Entry(copyOf(entry.responses()), entry.validUntil());
+        if (partition.entries.putIfAbsent(new Key(CartFingerprint.of(cart), catalogVersion),
+                CompletableFuture.completedFuture(copy)) == null) {
+            evictIfFull(partition.entries);
+        }
+    }
+
+    public void invalidateAll() {
+        partitions.clear();
+    }
+
+    public int size(String tenantId) {
+        Partition partition = partitions.get(tenantId);
+        return partition == null ? 0 : partition.entries.size();
+    }
+
+    private Entry compute(ConcurrentMap<Key, CompletableFuture<Entry>> entries, Key key,
+            CompletableFuture<Entry> future, Supplier<Entry> loader) {
+        try {
+            Entry entry = loader.get();
+            future.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            entries.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Partition partition(String tenantId) {
+        Partition partition = partitions.get(tenantId);
+        if (partition == null && catalogVersion.isKnown(tenantId)) {
+            partition = partitions.computeIfAbsent(tenantId, t -> new Partition());
+        }
+        return partition;
+    }
+
+    private static List<ApplicableCouponResponse> copyOf(List<ApplicableCouponResponse> responses) {
+        return responses.stream().map(ApplicableCouponResponse::copy).toList();
+    }
+
+    private Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // The owning request already surfaced the failure; retry as a fresh miss
+            return null;
+        }
+    }
+
+    private void evictIfFull(ConcurrentMap<Key, CompletableFuture<Entry>> entries) {
+        int maxEntries = cacheProperties.getApplicability().getMaxEntries();
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        entries.values().removeIf(f -> f.isDone() && !f.isCompletedExceptionally() && f.join().isExpired(now));
+
+        int target = maxEntries - maxEntries / 10;
+        Iterator<CompletableFuture<Entry>> it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            if (it.next().isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private record Key(String fingerprint, long catalogVersion) {
+    }
+
+    private static final class Partition {
+        private final ConcurrentMap<Key, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+        private final AtomicLong cachedVersion = new AtomicLong(-1);
+
+        // Moves the partition forward to a newer version only; false for a version older than the cached one
+        boolean admit(long catalogVersion) {
+            while (true) {
+                long cached = cachedVersion.get();
+                if (catalogVersion <= cached) {
+                    return catalogVersion == cached;
+                }
+                if (cachedVersion.compareAndSet(cached, catalogVersion)) {
+                    entries.clear();
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * A computed result together with the instant at which some coupon in the
+     * catalog changes validity and the result can no longer be trusted.
+     */
+    public record Entry(List<ApplicableCouponResponse> responses, LocalDateTime validUntil) {
+
+        boolean isExpired(LocalDateTime now) {
+            return validUntil != null && !now.isBefore(validUntil);
+        }
+    }
+}
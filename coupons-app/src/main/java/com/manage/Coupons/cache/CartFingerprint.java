@@ -0,0 +1,40 @@
+package com.manage.Coupons.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.CartItem;
+
+/**
+ * Canonical form of a cart for applicability purposes: line order, cart id and
+ * product names do not affect which coupons apply, so they are left out.
+ */
+public final class CartFingerprint {
+
+    private static final Comparator<CartItem> CANONICAL_ORDER = Comparator
+            .comparing(CartItem::getProductId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CartItem::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(CartItem::getQuantity, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private CartFingerprint() {
+    }
+
+    public static String of(Cart cart) {
+        List<CartItem> items = cart.getItems() == null ? new ArrayList<>() : new ArrayList<>(cart.getItems());
+        items.sort(CANONICAL_ORDER);
+
+        StringBuilder fingerprint = new StringBuilder(items.size() * 24 + 16);
+        for (CartItem item : items) {
+            String productId = String.valueOf(item.getProductId());
+            // Length prefix keeps ids containing separators unambiguous
+            fingerprint.append(productId.length()).append(':').append(productId)
+                    .append('x').append(item.getQuantity())
+                    .append('@').append(item.getPrice())
+                    .append(';');
+        }
+        fingerprint.append('=').append(cart.getTotalAmount());
+        return fingerprint.toString();
+    }
+}
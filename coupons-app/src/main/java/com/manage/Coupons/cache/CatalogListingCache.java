@@ -0,0 +1,136 @@
+package com.manage.Coupons.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.service.CatalogVersion;
+
+/**
+ * Holds the coupon listings pre-serialized (plain and gzip) together with their ETag,
+ * so polling clients are answered without touching the repository or re-serializing
+ * until the catalog version changes or a coupon's validity window opens or closes.
+ * Listings of tenants unknown to {@link CatalogVersion} are served but not retained.
+ */
+@Component
+public class CatalogListingCache {
+
+    public enum Listing {
+        ALL, ACTIVE
+    }
+
+    private static final TypeReference<List<Coupon>> COUPON_LIST = new TypeReference<>() {
+    };
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    // Per tenant, so rebuilding one tenant's listing never holds up another's
+    private final ConcurrentMap<String, Map<Listing, Slot>> tenants = new ConcurrentHashMap<>();
+
+    public SerializedListing get(String tenantId, Listing listing, long catalogVersion, Supplier<Snapshot> loader) {
+        Map<Listing, Slot> slots = tenants.get(tenantId);
+        if (slots == null) {
+            if (!this.catalogVersion.isKnown(tenantId)) {
+                return serialize(tenantId, listing, catalogVersion, loader.get());
+            }
+            slots = tenants.computeIfAbsent(tenantId, t -> newSlots());
+        }
+        Slot slot = slots.get(listing);
+        SerializedListing current = slot.value;
+        if (current != null && current.isFresh(catalogVersion, LocalDateTime.now())) {
+            return current;
+        }
+        synchronized (slot) {
+            current = slot.value;
+            if (current == null || !current.isFresh(catalogVersion, LocalDateTime.now())) {
+                current = serialize(tenantId, listing, catalogVersion, loader.get());
+                slot.value = current;
+            }
+            return current;
+        }
+    }
+
+    private static Map<Listing, Slot> newSlots() {
+        Map<Listing, Slot> slots = new EnumMap<>(Listing.class);
+        for (Listing listing : Listing.values()) {
+            slots.put(listing, new Slot());
+        }
+        return slots;
+    }
+
+    private SerializedListing serialize(String tenantId, Listing listing, long catalogVersion, Snapshot snapshot) {
+        try {
+            byte[] json = objectMapper.writerFor(COUPON_LIST).writeValueAsBytes(snapshot.coupons());
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            String etag = "W/\"" + tenantId + "-" + listing.name().toLowerCase() + "-" + catalogVersion + "-"
+                    + Long.toHexString(crc.getValue()) + "\"";
+            return new SerializedListing(etag, json, gzip(json), catalogVersion, snapshot.validUntil());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Slot {
+        private volatile SerializedListing value;
+    }
+
+    public record Snapshot(List<Coupon> coupons, LocalDateTime validUntil) {
+    }
+
+    public record SerializedListing(String etag, byte[] json, byte[] gzip, long catalogVersion,
+            LocalDateTime validUntil) {
+
+        boolean isFresh(long version, LocalDateTime now) {
+            return catalogVersion == version && (validUntil == null || now.isBefore(validUntil));
+        }
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            String opaque = stripWeak(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String stripWeak(String tag) {
+            return tag.startsWith("W/") ? tag.substring(2) : tag;
+        }
+    }
+}
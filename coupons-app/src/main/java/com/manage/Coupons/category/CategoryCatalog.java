@@ -0,0 +1,71 @@
+package com.manage.Coupons.category;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manage.Coupons.config.CategoryProperties;
+import com.manage.Coupons.engine.CategoryTree;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the category hierarchy used by category-wise coupons, loaded once from
+ * {@code coupons.categories.location} at startup.
+ */
+@Component
+@Slf4j
+public class CategoryCatalog {
+
+    record Source(Map<String, String> categories, Map<String, String> products) {
+    }
+
+    @Autowired
+    private CategoryProperties properties;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile CategoryTree tree = CategoryTree.empty();
+
+    @PostConstruct
+    public void load() throws IOException {
+        Resource resource = resourceLoader.getResource(properties.getLocation());
+        if (!resource.exists()) {
+            log.warn("No category source at {}; category-wise coupons will not apply", properties.getLocation());
+            return;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            tree = read(in, objectMapper);
+        }
+        log.info("Loaded {} categories from {}", tree.size(), properties.getLocation());
+    }
+
+    public static CategoryTree read(InputStream in, ObjectMapper objectMapper) throws IOException {
+        Source source = objectMapper.readValue(in, Source.class);
+        return CategoryTree.of(orEmpty(source.categories()), orEmpty(source.products()));
+    }
+
+    public CategoryTree tree() {
+        return tree;
+    }
+
+    public boolean contains(String category) {
+        return tree.contains(category);
+    }
+
+    private static Map<String, String> orEmpty(Map<String, String> values) {
+        return values == null ? new LinkedHashMap<>() : values;
+    }
+}
@@ -0,0 +1,17 @@
+package com.manage.Coupons.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.analysis")
+public class AnalysisProperties {
+
+    private boolean enabled = true;
+
+    // Writes within this long of each other are analyzed together
+    private Duration debounce = Duration.ofMillis(500);
+}
@@ -0,0 +1,34 @@
+package com.manage.Coupons.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+
+    private String directory = "audit";
+
+    private int bufferCapacity = 8192;
+
+    private int batchSize = 512;
+
+    private long maxSegmentBytes = 64L * 1024 * 1024;
+
+    private FsyncPolicy fsync = FsyncPolicy.ON_ROTATE;
+
+    // How long the writer idles when the buffer is empty
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    // Upper bound for the doubling pause after a failed write
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+    public enum FsyncPolicy {
+        NEVER, PER_BATCH, ON_ROTATE
+    }
+}
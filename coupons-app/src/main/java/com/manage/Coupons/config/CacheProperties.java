@@ -0,0 +1,29 @@
+package com.manage.Coupons.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.cache")
+public class CacheProperties {
+
+    private Applicability applicability = new Applicability();
+
+    private Listing listing = new Listing();
+
+    @Data
+    public static class Applicability {
+        private boolean enabled = true;
+        private int maxEntries = 10_000;
+        // Upper bound on how long a result is trusted even without catalog changes
+        private Duration maxTtl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Listing {
+        private Duration maxTtl = Duration.ofMinutes(5);
+    }
+}
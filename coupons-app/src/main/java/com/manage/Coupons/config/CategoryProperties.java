@@ -0,0 +1,13 @@
+package com.manage.Coupons.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.categories")
+public class CategoryProperties {
+
+    // JSON file with "categories" (category -> parent) and "products" (product -> category)
+    private String location = "classpath:categories.json";
+}
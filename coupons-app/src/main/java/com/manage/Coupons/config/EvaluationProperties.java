@@ -0,0 +1,24 @@
+package com.manage.Coupons.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.evaluation")
+public class EvaluationProperties {
+
+    // Threads in the dedicated pool; below 2 every evaluation runs on the request thread
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Evaluations estimated to take less than this run sequentially
+    private Duration parallelThreshold = Duration.ofMillis(2);
+
+    // Subtasks are split down to roughly this much estimated work
+    private Duration leafTarget = Duration.ofNanos(250_000);
+
+    // Parallel evaluations allowed at once across all requests; others fall back to sequential
+    private int maxParallelEvaluations = 2;
+}
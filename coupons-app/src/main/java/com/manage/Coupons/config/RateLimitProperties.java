@@ -0,0 +1,40 @@
+package com.manage.Coupons.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Header naming the calling client within its caller identity (authenticated principal, else remote address)
+    private String clientHeader = "X-Client-Id";
+
+    // Each caller identity may spend this many clients' worth of the endpoint limit, however many client ids it sends
+    private int clientsPerIdentity = 4;
+
+    private int maxConcurrentRequests = 64;
+
+    private long concurrencyRetryAfterSeconds = 1;
+
+    // Bound on buckets kept per endpoint, for identities and for clients; the least recently used is evicted
+    private int maxTrackedClients = 10_000;
+
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    private Map<String, EndpointLimit> endpoints = new LinkedHashMap<>();
+
+    @Data
+    public static class EndpointLimit {
+        private String path;
+        private int capacity = 20;
+        private double refillPerSecond = 10;
+    }
+}
@@ -0,0 +1,15 @@
+package com.manage.Coupons.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "coupons.sync")
+public class SyncProperties {
+
+    // Older changes are compacted away and clients behind them must resync
+    private int retainedChanges = 10_000;
+
+    private int maxPageSize = 500;
+}
@@ -0,0 +1,54 @@
+package com.manage.Coupons.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.manage.Coupons.ratelimit.BucketSweeper;
+import com.manage.Coupons.ratelimit.ConcurrencyLimiter;
+import com.manage.Coupons.ratelimit.RateLimitInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Autowired
+    private BucketSweeper bucketSweeper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!rateLimitProperties.isEnabled()) {
+            return;
+        }
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(rateLimitProperties.getMaxConcurrentRequests());
+        rateLimitProperties.getEndpoints().forEach((endpoint, limit) -> {
+            RateLimitInterceptor interceptor = new RateLimitInterceptor(endpoint, limit, rateLimitProperties,
+                    concurrencyLimiter);
+            interceptor.tables().forEach(bucketSweeper::register);
+            registry.addInterceptor(interceptor).addPathPatterns(limit.getPath());
+        });
+    }
+
+    // Serve application/cbor with the app's Jackson settings, omitting nulls. The converter
+    // stays behind the JSON one so requests without a specific Accept still get JSON.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build()));
+    }
+}
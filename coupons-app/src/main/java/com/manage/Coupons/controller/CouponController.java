@@ -0,0 +1,306 @@
+package com.manage.Coupons.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.manage.Coupons.cache.CatalogListingCache;
+import com.manage.Coupons.dto.ApplicableCouponResponse;
+import com.manage.Coupons.dto.ApplicableCouponSummary;
+import com.manage.Coupons.dto.ApplicableCouponsResult;
+import com.manage.Coupons.dto.ApplyCouponRequest;
+import com.manage.Coupons.dto.ApplyOutcome;
+import com.manage.Coupons.dto.BulkLifecycleRequest;
+import com.manage.Coupons.dto.BulkLifecycleResponse;
+import com.manage.Coupons.dto.CatalogChangesResponse;
+import com.manage.Coupons.dto.DominanceReport;
+import com.manage.Coupons.evaluation.ParallelEvaluator;
+import com.manage.Coupons.exception.ConstraintViolationException;
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.service.CouponExportService;
+import com.manage.Coupons.service.CouponService;
+import com.manage.Coupons.tenant.Tenants;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/coupons")
+@Slf4j
+public class CouponController {
+
+    // Lets mirrors continue with /changes from the version of a full download
+    static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+    static final String CATALOG_EPOCH_HEADER = "X-Catalog-Epoch";
+    static final String NDJSON = "application/x-ndjson";
+    static final String VIEW_FULL = "full";
+    static final String VIEW_SLIM = "slim";
+    // Milliseconds the caller will wait for /applicable-coupons; also accepted as ?deadlineMs=
+    static final String DEADLINE_HEADER = "X-Deadline-Ms";
+    // Longer budgets are treated as this, which also keeps the deadline from overflowing
+    static final long MAX_DEADLINE_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private CouponExportService couponExportService;
+
+    @PostMapping
+    public ResponseEntity<?> createCoupon(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @Valid @RequestBody Coupon coupon) {
+        Coupon createdCoupon = couponService.createCoupon(Tenants.resolve(tenant), coupon);
+        return ResponseEntity.ok(createdCoupon);
+    }
+
+    @GetMapping
+    public ResponseEntity<byte[]> getAllCoupons(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return listingResponse(couponService.getCouponListing(Tenants.resolve(tenant), CatalogListingCache.Listing.ALL),
+                ifNoneMatch, acceptEncoding);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<CatalogChangesResponse> getChanges(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            @RequestParam(required = false) String epoch) {
+        return ResponseEntity.ok(couponService.getChangesSince(Tenants.resolve(tenant), since, limit, epoch));
+    }
+
+    @GetMapping("/redundancy-report")
+    public ResponseEntity<DominanceReport> getRedundancyReport(@RequestHeader(value = Tenants.HEADER, required = false) String tenant) {
+        return ResponseEntity.ok(couponService.getRedundancyReport(Tenants.resolve(tenant)));
+    }
+
+    // Written on the request thread so the cursor stays inside the export transaction
+    @GetMapping("/export")
+    public void exportCoupons(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        String tenantId = Tenants.resolve(tenant);
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"coupons.ndjson\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING + ", " + Tenants.HEADER);
+        if (acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            try (OutputStream out = new GZIPOutputStream(response.getOutputStream(), 8192)) {
+                couponExportService.exportCoupons(tenantId, out);
+            }
+        } else {
+            couponExportService.exportCoupons(tenantId, response.getOutputStream());
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getCouponById(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable Long id) {
+        Coupon coupon = couponService.getCouponById(Tenants.resolve(tenant), id);
+        return new ResponseEntity<Coupon>(coupon, HttpStatus.OK);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateCoupon(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable Long id,
+            @Valid @RequestBody Coupon couponDetails) {
+        Coupon updatedCoupon = couponService.updateCoupon(Tenants.resolve(tenant), id, couponDetails);
+        return ResponseEntity.ok(updatedCoupon);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteCoupon(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable Long id) {
+
+        couponService.deleteCoupon(Tenants.resolve(tenant), id);
+        return ResponseEntity.ok().build();
+
+    }
+
+    @PostMapping("/bulk/activate")
+    public ResponseEntity<BulkLifecycleResponse> bulkActivate(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestBody BulkLifecycleRequest request) {
+        return ResponseEntity.ok(couponService.updateLifecycle(Tenants.resolve(tenant),
+                BulkLifecycleRequest.Operation.ACTIVATE, request));
+    }
+
+    @PostMapping("/bulk/deactivate")
+    public ResponseEntity<BulkLifecycleResponse> bulkDeactivate(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestBody BulkLifecycleRequest request) {
+        return ResponseEntity.ok(couponService.updateLifecycle(Tenants.resolve(tenant),
+                BulkLifecycleRequest.Operation.DEACTIVATE, request));
+    }
+
+    @PostMapping("/bulk/extend")
+    public ResponseEntity<BulkLifecycleResponse> bulkExtend(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestBody BulkLifecycleRequest request) {
+        return ResponseEntity.ok(couponService.updateLifecycle(Tenants.resolve(tenant),
+                BulkLifecycleRequest.Operation.EXTEND, request));
+    }
+
+    @PostMapping("/applicable-coupons")
+    public ResponseEntity<?> getApplicableCoupons(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestHeader(value = DEADLINE_HEADER, required = false) Long deadlineHeader,
+            @RequestParam(value = "deadlineMs", required = false) Long deadlineParam,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            @RequestParam(defaultValue = "false") boolean best,
+            @RequestBody Cart cart) {
+        long received = System.nanoTime();
+        boolean slim = VIEW_SLIM.equalsIgnoreCase(view);
+        if (!slim && !VIEW_FULL.equalsIgnoreCase(view)) {
+            throw new ConstraintViolationException("Unknown view " + view + ", expected full or slim");
+        }
+        Long budgetMs = deadlineParam != null ? deadlineParam : deadlineHeader;
+        if (budgetMs == null) {
+            // Best-only results come ranked by savings; the full list stays in id order
+            List<ApplicableCouponResponse> applicableCoupons = best
+                    ? couponService.getApplicableCoupons(Tenants.resolve(tenant), cart, ParallelEvaluator.NO_DEADLINE,
+                            true).getCoupons()
+                    : couponService.getApplicableCoupons(Tenants.resolve(tenant), cart);
+            return ResponseEntity.ok(slim ? applicableCoupons.stream().map(ApplicableCouponSummary::of).toList()
+                    : applicableCoupons);
+        }
+        if (budgetMs <= 0) {
+            throw new ConstraintViolationException("Deadline must be a positive number of milliseconds");
+        }
+        ApplicableCouponsResult<ApplicableCouponResponse> result = couponService.getApplicableCoupons(
+                Tenants.resolve(tenant), cart,
+                received + TimeUnit.MILLISECONDS.toNanos(Math.min(budgetMs, MAX_DEADLINE_MS)), best);
+        if (slim) {
+            return ResponseEntity.ok(new ApplicableCouponsResult<>(
+                    result.getCoupons().stream().map(ApplicableCouponSummary::of).toList(),
+                    result.isPartial(), result.getUnevaluated()));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/apply-coupon/{id}")
+    public ResponseEntity<?> applyCoupon(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable Long id,
+            @RequestBody ApplyCouponRequest request) {
+        Cart cart = new Cart();
+        cart.setId(request.getCartId());
+        cart.setItems(request.getItems());
+        cart.setTotalAmount(couponService.calculateTotalAmount(request.getItems()));
+
+        Cart updatedCart = couponService.applyCoupon(Tenants.resolve(tenant), id, cart);
+        return ResponseEntity.ok(updatedCart);
+    }
+
+    @PostMapping("/apply-by-code/{code}")
+    public ResponseEntity<?> applyCouponByCode(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable String code,
+            @RequestBody ApplyCouponRequest request) {
+        Cart cart = new Cart();
+        cart.setId(request.getCartId());
+        cart.setItems(request.getItems());
+        cart.setTotalAmount(couponService.calculateTotalAmount(request.getItems()));
+
+        Cart updatedCart = couponService.applyCouponByCode(Tenants.resolve(tenant), code, cart);
+        return ResponseEntity.ok(updatedCart);
+    }
+
+    @PostMapping("/apply-coupon/{id}/outcome")
+    public ResponseEntity<ApplyOutcome> tryApplyCoupon(
+            @RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable Long id,
+            @RequestBody ApplyCouponRequest request) {
+        return outcomeResponse(couponService.tryApplyCoupon(Tenants.resolve(tenant), id, toCart(request)));
+    }
+
+    @PostMapping("/apply-by-code/{code}/outcome")
+    public ResponseEntity<ApplyOutcome> tryApplyCouponByCode(
+            @RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @PathVariable String code,
+            @RequestBody ApplyCouponRequest request) {
+        return outcomeResponse(couponService.tryApplyCouponByCode(Tenants.resolve(tenant), code, toCart(request)));
+    }
+
+    private Cart toCart(ApplyCouponRequest request) {
+        Cart cart = new Cart();
+        cart.setId(request.getCartId());
+        cart.setItems(request.getItems());
+        cart.setTotalAmount(couponService.calculateTotalAmount(request.getItems()));
+        return cart;
+    }
+
+    // A rejected coupon is a normal answer; only a missing coupon is an error status
+    private static ResponseEntity<ApplyOutcome> outcomeResponse(ApplyOutcome outcome) {
+        HttpStatus status = outcome instanceof ApplyOutcome.NotFound ? HttpStatus.NOT_FOUND : HttpStatus.OK;
+        return ResponseEntity.status(status).body(outcome);
+    }
+
+    @GetMapping("/active-coupons")
+    public ResponseEntity<byte[]> getActiveCoupons(@RequestHeader(value = Tenants.HEADER, required = false) String tenant,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return listingResponse(
+                couponService.getCouponListing(Tenants.resolve(tenant), CatalogListingCache.Listing.ACTIVE),
+                ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> listingResponse(CatalogListingCache.SerializedListing listing,
+            String ifNoneMatch, String acceptEncoding) {
+        if (listing.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(listing.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING, Tenants.HEADER)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(listing.etag())
+                .header(CATALOG_VERSION_HEADER, String.valueOf(listing.catalogVersion()))
+                .header(CATALOG_EPOCH_HEADER, couponService.getCatalogEpoch())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING, Tenants.HEADER);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.gzip());
+        }
+        return response.body(listing.json());
+    }
+
+    // gzip must be named (or covered by "*") with a non-zero q-value; gzip;q=0 opts out
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (name.equals("*")) {
+                any = q;
+            }
+        }
+        return gzip != null ? gzip > 0 : any != null && any > 0;
+    }
+}
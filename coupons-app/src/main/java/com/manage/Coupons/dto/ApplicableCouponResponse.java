@@ -0,0 +1,20 @@
+package com.manage.Coupons.dto;
+
+import lombok.Data;
+
+@Data
+public class ApplicableCouponResponse {
+    private CouponDTO coupon;
+    private String message;
+    private Boolean isCouponApplicable;
+    private Double savings;
+
+    public ApplicableCouponResponse copy() {
+        ApplicableCouponResponse copy = new ApplicableCouponResponse();
+        copy.setCoupon(coupon == null ? null : coupon.copy());
+        copy.setMessage(message);
+        copy.setIsCouponApplicable(isCouponApplicable);
+        copy.setSavings(savings);
+        return copy;
+    }
+}
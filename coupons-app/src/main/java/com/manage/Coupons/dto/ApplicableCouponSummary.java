@@ -0,0 +1,15 @@
+package com.manage.Coupons.dto;
+
+/**
+ * Slim projection of {@link ApplicableCouponResponse} for callers that only rank
+ * coupons and apply one by id or code: no coupon definition, just what it saves.
+ * Only applicable coupons are listed, so entries carry no applicability reason.
+ */
+public record ApplicableCouponSummary(Long id, String code, double savings) {
+
+    public static ApplicableCouponSummary of(ApplicableCouponResponse response) {
+        CouponDTO coupon = response.getCoupon();
+        return new ApplicableCouponSummary(coupon.getId(), coupon.getCode(),
+                response.getSavings() == null ? 0 : response.getSavings());
+    }
+}
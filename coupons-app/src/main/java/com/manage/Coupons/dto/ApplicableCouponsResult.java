@@ -0,0 +1,21 @@
+package com.manage.Coupons.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response to a deadline-bounded /applicable-coupons request. When the deadline cut the
+ * evaluation short, {@code partial} is set and {@code unevaluated} candidates were never
+ * checked; {@code coupons} holds what was found, highest savings first.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ApplicableCouponsResult<T> {
+    private List<T> coupons;
+    private boolean partial;
+    private int unevaluated;
+}
@@ -0,0 +1,31 @@
+package com.manage.Coupons.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.manage.Coupons.model.Cart;
+
+/**
+ * Result of trying to apply a coupon to a cart. Rejections are ordinary results here,
+ * not exceptions, and the type is written to the response as the {@code outcome} field.
+ */
+@JsonTypeInfo(
+    use = JsonTypeInfo.Id.NAME,
+    include = JsonTypeInfo.As.PROPERTY,
+    property = "outcome"
+)
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = ApplyOutcome.Applied.class, name = "APPLIED"),
+    @JsonSubTypes.Type(value = ApplyOutcome.NotApplicable.class, name = "NOT_APPLICABLE"),
+    @JsonSubTypes.Type(value = ApplyOutcome.NotFound.class, name = "NOT_FOUND")
+})
+public sealed interface ApplyOutcome {
+
+    record Applied(Long couponId, String code, Cart cart, double discount) implements ApplyOutcome {
+    }
+
+    record NotApplicable(Long couponId, String code, String reason) implements ApplyOutcome {
+    }
+
+    record NotFound(String message) implements ApplyOutcome {
+    }
+}
@@ -0,0 +1,28 @@
+package com.manage.Coupons.dto;
+
+import java.time.LocalDateTime;
+
+import com.manage.Coupons.model.CouponType;
+
+import lombok.Data;
+
+@Data
+public class BulkLifecycleRequest {
+
+    public enum Operation {
+        ACTIVATE, DEACTIVATE, EXTEND
+    }
+
+    // Filter: every given criterion must match, and at least one is required
+    private CouponType type;
+    private String codePrefix;
+    private Long minId;
+    private Long maxId;
+    // Coupons whose validity overlaps [windowStart, windowEnd]; open-ended validity always overlaps
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+
+    // New validity bounds for EXTEND; a null bound is left unchanged
+    private LocalDateTime validFrom;
+    private LocalDateTime validTo;
+}
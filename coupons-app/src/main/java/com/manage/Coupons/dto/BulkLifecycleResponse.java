@@ -0,0 +1,19 @@
+package com.manage.Coupons.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkLifecycleResponse {
+    private BulkLifecycleRequest.Operation operation;
+    private int updated;
+    // The single catalog version the whole operation was published at
+    private long catalogVersion;
+    // Coupons an extend left unchanged because their validFrom would have ended up after validTo
+    private List<Long> rejected;
+}
@@ -0,0 +1,24 @@
+package com.manage.Coupons.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChange {
+
+    public enum Kind {
+        CREATED, UPDATED, ACTIVATED, DEACTIVATED, DELETED
+    }
+
+    private long version;
+    private Long couponId;
+    private Kind kind;
+    // Absent for deletions
+    private CouponDTO coupon;
+}
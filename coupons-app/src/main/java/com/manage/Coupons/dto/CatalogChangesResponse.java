@@ -0,0 +1,21 @@
+package com.manage.Coupons.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CatalogChangesResponse {
+    private String epoch;
+    private long since;
+    private long currentVersion;
+    // Pass as "since" for the next page or the next poll
+    private long nextSince;
+    private boolean hasMore;
+    // The requested version is no longer retained; reload the full catalog and continue from its version
+    private boolean resyncRequired;
+    private List<CatalogChange> changes;
+}
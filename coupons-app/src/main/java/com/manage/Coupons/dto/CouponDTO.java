@@ -0,0 +1,66 @@
+package com.manage.Coupons.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.manage.Coupons.model.CouponType;
+
+import lombok.Data;
+
+@Data
+public class CouponDTO {
+    private Long id;
+    private String name;
+    private String code;
+    private CouponType type;
+    private String description;
+    private LocalDateTime validFrom;
+    private LocalDateTime validTo;
+    private boolean active;
+    
+    // Cart-wise specific
+    private Double minCartAmount;
+    private Double discountPercentage;
+    private Double fixedDiscount;
+    
+    // Product-wise specific
+    private List<String> applicableProducts;
+    
+    // Category-wise specific
+    private String category;
+    
+    // BxGy specific
+    private List<String> buyProducts;
+    private Integer buyQuantity;
+    private List<String> getProducts;
+    private Integer getQuantity;
+    private Integer repetitionLimit;
+
+    public CouponDTO copy() {
+        CouponDTO copy = new CouponDTO();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setCode(code);
+        copy.setType(type);
+        copy.setDescription(description);
+        copy.setValidFrom(validFrom);
+        copy.setValidTo(validTo);
+        copy.setActive(active);
+        copy.setMinCartAmount(minCartAmount);
+        copy.setDiscountPercentage(discountPercentage);
+        copy.setFixedDiscount(fixedDiscount);
+        copy.setApplicableProducts(copyOf(applicableProducts));
+        copy.setCategory(category);
+        copy.setBuyProducts(copyOf(buyProducts));
+        copy.setBuyQuantity(buyQuantity);
+        copy.setGetProducts(copyOf(getProducts));
+        copy.setGetQuantity(getQuantity);
+        copy.setRepetitionLimit(repetitionLimit);
+        return copy;
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : new ArrayList<>(values);
+    }
+}
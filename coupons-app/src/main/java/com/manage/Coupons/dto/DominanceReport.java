@@ -0,0 +1,23 @@
+package com.manage.Coupons.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.manage.Coupons.model.CouponType;
+
+/**
+ * Redundancy in a tenant's active catalog as of one catalog version. A dominated coupon
+ * applies to no cart its dominator does not, and never saves more there. Overlap groups
+ * are coupons competing for the same carts (same type, validity window and products)
+ * where none dominates another, such as a ladder of cart-wise tiers.
+ */
+public record DominanceReport(String tenantId, long catalogVersion, LocalDateTime analyzedAt, int analyzedCoupons,
+        List<DominatedCoupon> dominated, List<OverlapGroup> overlaps) {
+
+    public record DominatedCoupon(Long couponId, String code, Long dominatedBy, String dominatedByCode,
+            String reason) {
+    }
+
+    public record OverlapGroup(CouponType type, List<String> products, List<Long> couponIds) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.manage.Coupons.evaluation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.manage.Coupons.engine.CartLine;
+import com.manage.Coupons.engine.CartSnapshot;
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.CategoryWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+
+/**
+ * Orders candidates by what they could save on a cart, so a deadline-bounded evaluation
+ * spends its budget on the most valuable coupons first. The estimate is an upper bound
+ * read from the coupon's terms without running its rule.
+ */
+public final class CouponPriority {
+
+    private CouponPriority() {
+    }
+
+    // How many estimates are made between deadline checks
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    /**
+     * Orders coupons by estimated savings, highest first, estimating each coupon once.
+     * Estimating counts against the deadline: once it passes, the coupons not yet
+     * estimated follow the ranked ones in their original order.
+     */
+    public static <C extends Coupon> List<C> highestSavingsFirst(List<C> coupons, CartSnapshot cart,
+            long deadlineNanos) {
+        List<Ranked<C>> ranked = new ArrayList<>(coupons.size());
+        int estimated = 0;
+        while (estimated < coupons.size()) {
+            if (deadlineNanos != ParallelEvaluator.NO_DEADLINE && estimated % DEADLINE_CHECK_INTERVAL == 0
+                    && System.nanoTime() - deadlineNanos >= 0) {
+                break;
+            }
+            C coupon = coupons.get(estimated++);
+            ranked.add(new Ranked<>(coupon, estimatedSavings(coupon, cart)));
+        }
+        ranked.sort(Comparator.comparingDouble((Ranked<C> r) -> r.savings()).reversed());
+        List<C> ordered = new ArrayList<>(coupons.size());
+        for (Ranked<C> r : ranked) {
+            ordered.add(r.coupon());
+        }
+        ordered.addAll(coupons.subList(estimated, coupons.size()));
+        return ordered;
+    }
+
+    public static double estimatedSavings(Coupon coupon, CartSnapshot cart) {
+        double total = cart.totalAmount();
+        double estimate;
+        if (coupon instanceof CartWiseCoupon cartWise) {
+            if (cartWise.getMinCartAmount() != null && total < cartWise.getMinCartAmount()) {
+                return 0;
+            }
+            // Unlike the per-unit rules, a cart-wise fixed discount takes precedence over its percentage
+            if (cartWise.getFixedDiscount() != null) {
+                estimate = Math.min(cartWise.getFixedDiscount(), total);
+            } else {
+                estimate = cartWise.getDiscountPercentage() == null ? 0 : total * cartWise.getDiscountPercentage() / 100;
+            }
+        } else if (coupon instanceof ProductWiseCoupon productWise) {
+            Set<String> products = productWise.getApplicableProducts() == null ? Set.of()
+                    : new HashSet<>(productWise.getApplicableProducts());
+            estimate = products.isEmpty() ? 0 : perUnitDiscount(cart, products::contains,
+                    productWise.getDiscountPercentage(), productWise.getFixedDiscount());
+        } else if (coupon instanceof CategoryWiseCoupon categoryWise) {
+            // Which lines fall in the category is not known here, so every line counts
+            estimate = perUnitDiscount(cart, productId -> true, categoryWise.getDiscountPercentage(),
+                    categoryWise.getFixedDiscount());
+        } else if (coupon instanceof BxGyCoupon bxgy) {
+            double highestPrice = 0;
+            for (CartLine line : cart.lines()) {
+                highestPrice = Math.max(highestPrice, line.price());
+            }
+            int free = bxgy.getGetQuantity() == null ? 1 : bxgy.getGetQuantity();
+            int repetitions = bxgy.getRepetitionLimit() == null ? 1 : bxgy.getRepetitionLimit();
+            estimate = highestPrice * free * repetitions;
+        } else {
+            estimate = 0;
+        }
+        return Math.min(estimate, total);
+    }
+
+    // Mirrors the per-unit rules: a percentage takes precedence, and a fixed discount applies to each unit
+    private static double perUnitDiscount(CartSnapshot cart, Predicate<String> matches, Double percentage,
+            Double fixed) {
+        double discount = 0;
+        for (CartLine line : cart.lines()) {
+            if (!matches.test(line.productId())) {
+                continue;
+            }
+            if (percentage != null) {
+                discount += line.lineTotal() * percentage / 100;
+            } else if (fixed != null) {
+                discount += Math.min(fixed, line.price()) * line.quantity();
+            }
+        }
+        return discount;
+    }
+
+    private record Ranked<C>(C coupon, double savings) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.manage.Coupons.evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.config.EvaluationProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evaluates a cart against its candidate coupons, splitting large candidate lists across
+ * a dedicated fork-join pool. The cost of a run is estimated as candidates x cart lines
+ * x a per-unit cost calibrated from previous runs; only runs estimated above
+ * {@code parallel-threshold} are split, into leaves of about {@code leaf-target} each.
+ *
+ * Leaves write results into their own slice of a shared array, so merging needs no
+ * locking and keeps candidate order. A semaphore caps concurrent parallel runs; when
+ * none is free the run stays on the calling thread.
+ *
+ * A deadline is honoured cooperatively: each candidate is checked only if the deadline
+ * has not passed, and the run reports how many were skipped.
+ */
+@Component
+public class ParallelEvaluator {
+
+    // Per coupon and cart line, before any run has been measured
+    static final double INITIAL_NANOS_PER_UNIT = 200;
+    // Shorter runs are dominated by timer and call overhead, so they do not calibrate
+    static final long MIN_CALIBRATION_UNITS = 256;
+    private static final double CALIBRATION_WEIGHT = 0.2;
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    @Autowired
+    private EvaluationProperties evaluationProperties;
+
+    private ForkJoinPool pool;
+    private Semaphore permits;
+    private volatile double nanosPerUnit = INITIAL_NANOS_PER_UNIT;
+
+    @PostConstruct
+    public void start() {
+        if (evaluationProperties.getParallelism() < 2 || evaluationProperties.getMaxParallelEvaluations() < 1) {
+            return;
+        }
+        permits = new Semaphore(evaluationProperties.getMaxParallelEvaluations());
+        pool = new ForkJoinPool(evaluationProperties.getParallelism(), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("coupon-evaluation-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    /**
+     * Applies {@code check} to every candidate and returns the results {@code keep}
+     * accepts, in candidate order.
+     */
+    public <T, R> List<R> evaluate(List<T> candidates, int cartLines, Function<T, R> check, Predicate<R> keep) {
+        return evaluate(candidates, cartLines, check, keep, NO_DEADLINE).results();
+    }
+
+    /**
+     * Like {@link #evaluate(List, int, Function, Predicate)}, but stops checking candidates
+     * once {@link System#nanoTime()} reaches {@code deadlineNanos}. Candidates are taken
+     * in list order, so put the most valuable first.
+     */
+    public <T, R> Results<R> evaluate(List<T> candidates, int cartLines, Function<T, R> check, Predicate<R> keep,
+            long deadlineNanos) {
+        int weight = Math.max(1, cartLines);
+        double perUnit = nanosPerUnit;
+        if (pool == null || (double) candidates.size() * weight * perUnit < evaluationProperties.getParallelThreshold().toNanos()
+                || !permits.tryAcquire()) {
+            long start = System.nanoTime();
+            List<R> results = new ArrayList<>();
+            int evaluated = 0;
+            for (T candidate : candidates) {
+                if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+                    break;
+                }
+                R result = check.apply(candidate);
+                if (keep.test(result)) {
+                    results.add(result);
+                }
+                evaluated++;
+            }
+            calibrate((long) evaluated * weight, System.nanoTime() - start);
+            return new Results<>(results, candidates.size() - evaluated);
+        }
+        try {
+            int leafSize = (int) Math.max(1,
+                    Math.min(candidates.size(), evaluationProperties.getLeafTarget().toNanos() / (perUnit * weight)));
+            Object[] slots = new Object[candidates.size()];
+            Totals totals = pool.invoke(new EvaluationTask<>(candidates, check, keep, slots, leafSize, deadlineNanos,
+                    0, candidates.size()));
+            calibrate(totals.evaluated() * weight, totals.nanos());
+            List<R> results = new ArrayList<>();
+            for (Object slot : slots) {
+                if (slot != null) {
+                    @SuppressWarnings("unchecked")
+                    R result = (R) slot;
+                    results.add(result);
+                }
+            }
+            return new Results<>(results, (int) (candidates.size() - totals.evaluated()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    double getNanosPerUnit() {
+        return nanosPerUnit;
+    }
+
+    // Racing updates may drop a sample, which an average does not need
+    private void calibrate(long units, long nanos) {
+        if (units >= MIN_CALIBRATION_UNITS) {
+            nanosPerUnit += CALIBRATION_WEIGHT * ((double) nanos / units - nanosPerUnit);
+        }
+    }
+
+    /**
+     * @param unevaluated candidates skipped because the deadline passed
+     */
+    public record Results<R>(List<R> results, int unevaluated) {
+
+        public boolean isPartial() {
+            return unevaluated > 0;
+        }
+    }
+
+    private record Totals(long evaluated, long nanos) {
+    }
+
+    // Returns the candidates checked and the time spent checking them, summed over leaves
+    private static final class EvaluationTask<T, R> extends RecursiveTask<Totals> {
+
+        private final List<T> candidates;
+        private final Function<T, R> check;
+        private final Predicate<R> keep;
+        private final Object[] slots;
+        private final int leafSize;
+        private final long deadlineNanos;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(List<T> candidates, Function<T, R> check, Predicate<R> keep, Object[] slots, int leafSize,
+                long deadlineNanos, int from, int to) {
+            this.candidates = candidates;
+            this.check = check;
+            this.keep = keep;
+            this.slots = slots;
+            this.leafSize = leafSize;
+            this.deadlineNanos = deadlineNanos;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > leafSize) {
+                int mid = (from + to) >>> 1;
+                EvaluationTask<T, R> left = new EvaluationTask<>(candidates, check, keep, slots, leafSize,
+                        deadlineNanos, from, mid);
+                left.fork();
+                Totals right = new EvaluationTask<>(candidates, check, keep, slots, leafSize, deadlineNanos, mid, to)
+                        .compute();
+                Totals joined = left.join();
+                return new Totals(joined.evaluated() + right.evaluated(), joined.nanos() + right.nanos());
+            }
+            long start = System.nanoTime();
+            int evaluated = 0;
+            for (int i = from; i < to; i++) {
+                if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+                    break;
+                }
+                R result = check.apply(candidates.get(i));
+                if (keep.test(result)) {
+                    slots[i] = result;
+                }
+                evaluated++;
+            }
+            return new Totals(evaluated, System.nanoTime() - start);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.manage.Coupons.exception;
 
 public class CouponNotFoundException extends RuntimeException{
     public CouponNotFoundException(String message) {
-        super(message);
+        // Raised for ordinary client mistakes, so skip the stack trace
+        super(message, null, false, false);
     }
 }
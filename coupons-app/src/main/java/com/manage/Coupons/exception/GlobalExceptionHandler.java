@@ -2,6 +2,8 @@ package com.manage.Coupons.exception;
 
 import java.time.LocalDate;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -35,6 +37,19 @@ public class GlobalExceptionHandler extends RuntimeException{
         return new ResponseEntity<>(errorInfo,HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorInfo> rateLimitExceededExceptionHandler(RateLimitExceededException exception){
+        ErrorInfo errorInfo = new ErrorInfo();
+            errorInfo.setStatus(HttpStatus.TOO_MANY_REQUESTS);
+            errorInfo.setDate(LocalDate.now());
+            errorInfo.setMessage(exception.getMessage());
+            errorInfo.setDetails("Request Rejected By Admission Control");
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(errorInfo);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ErrorInfo> constraintViolationExceptionHandler(ConstraintViolationException exception){
         ErrorInfo errorInfo = new ErrorInfo();
@@ -46,6 +61,17 @@ public class GlobalExceptionHandler extends RuntimeException{
         return new ResponseEntity<>(errorInfo,HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorInfo> optimisticLockingFailureExceptionHandler(OptimisticLockingFailureException exception){
+        ErrorInfo errorInfo = new ErrorInfo();
+            errorInfo.setStatus(HttpStatus.CONFLICT);
+            errorInfo.setDate(LocalDate.now());
+            errorInfo.setMessage(exception.getMessage());
+            errorInfo.setDetails("Coupon Was Modified Concurrently, Retry");
+
+        return new ResponseEntity<>(errorInfo,HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorInfo> validationCheckExceptionHandler(MethodArgumentNotValidException exception) {
         ErrorInfo errorInfo = new ErrorInfo();
@@ -0,0 +1,16 @@
+package com.manage.Coupons.exception;
+
+public class RateLimitExceededException extends RuntimeException{
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        // Rejections are expected under load, so skip the stack trace
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,46 @@
+package com.manage.Coupons.index;
+
+/**
+ * Fixed-size Bloom filter over 64-bit key hashes, using double hashing to derive the
+ * probe positions. Immutable once built; {@link CouponCodeIndex} rebuilds it whenever
+ * the code set changes.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final int bitMask;
+    private final int hashes;
+
+    private BloomFilter(int bitCount, int hashes) {
+        this.bits = new long[bitCount >>> 6];
+        this.bitMask = bitCount - 1;
+        this.hashes = hashes;
+    }
+
+    // About 10 bits and 7 probes per key gives a false positive rate below 1%
+    static BloomFilter forKeys(int expectedKeys) {
+        int bitCount = Math.max(1024, Integer.highestOneBit(Math.max(1, expectedKeys * 10) - 1) << 1);
+        return new BloomFilter(bitCount, 7);
+    }
+
+    void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
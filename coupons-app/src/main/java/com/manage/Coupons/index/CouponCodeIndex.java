@@ -0,0 +1,247 @@
+package com.manage.Coupons.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.engine.CouponCatalog;
+import com.manage.Coupons.model.Coupon;
+
+/**
+ * In-memory index from normalized coupon code to coupon id; callers load the coupon
+ * itself on demand, so the index holds only codes and ids however large the catalog's
+ * entities are. Lookups first consult a Bloom filter, so unknown codes (including
+ * guessing traffic) are rejected without probing the table or touching the database.
+ *
+ * Each tenant has its own table, open-addressing with linear probing and copy-on-write:
+ * readers work on an immutable snapshot without locking, and the rare catalog writes
+ * rebuild only the writing tenant's table.
+ */
+@Component
+public class CouponCodeIndex {
+
+    private static final Table EMPTY = Table.build(new String[0], new long[0], 0);
+
+    private final ConcurrentMap<String, Table> tables = new ConcurrentHashMap<>();
+
+    public static String normalize(String code) {
+        return CouponCatalog.normalizeCode(code);
+    }
+
+    public Optional<Long> findId(String tenantId, String code) {
+        String key = normalize(code);
+        if (key == null || key.isEmpty()) {
+            return Optional.empty();
+        }
+        long id = table(tenantId).get(key, hash(key));
+        return id == Table.ABSENT ? Optional.empty() : Optional.of(id);
+    }
+
+    public boolean contains(String tenantId, String code) {
+        return findId(tenantId, code).isPresent();
+    }
+
+    public int size(String tenantId) {
+        return table(tenantId).size;
+    }
+
+    public void rebuild(Collection<? extends Coupon> coupons) {
+        Builder builder = new Builder();
+        coupons.forEach(builder::add);
+        rebuild(builder);
+    }
+
+    // Replaces every tenant's table with the builder's; tenants it has not seen are dropped
+    public synchronized void rebuild(Builder builder) {
+        tables.keySet().retainAll(builder.tenants.keySet());
+        for (Map.Entry<String, Entries> tenant : builder.tenants.entrySet()) {
+            Entries entries = tenant.getValue();
+            tables.put(tenant.getKey(), Table.build(entries.keys, entries.ids, entries.count));
+        }
+    }
+
+    public void put(Coupon coupon) {
+        putAll(List.of(coupon));
+    }
+
+    // One table rebuild per tenant for the whole batch; compute() serializes writers per
+    // tenant without blocking other tenants
+    public void putAll(Collection<? extends Coupon> coupons) {
+        Map<String, List<Coupon>> byTenant = new HashMap<>();
+        for (Coupon coupon : coupons) {
+            if (coupon.getId() != null) {
+                byTenant.computeIfAbsent(coupon.getTenantId(), t -> new ArrayList<>()).add(coupon);
+            }
+        }
+        for (Map.Entry<String, List<Coupon>> tenant : byTenant.entrySet()) {
+            List<Coupon> batch = tenant.getValue();
+            Set<Long> replaced = new HashSet<>();
+            for (Coupon coupon : batch) {
+                replaced.add(coupon.getId());
+            }
+            tables.compute(tenant.getKey(), (tenantId, existing) -> {
+                Table current = existing == null ? EMPTY : existing;
+                String[] keys = new String[current.size + batch.size()];
+                long[] ids = new long[current.size + batch.size()];
+                int count = current.copyEntries(keys, ids, replaced);
+                for (Coupon coupon : batch) {
+                    String key = normalize(coupon.getCode());
+                    if (key != null && !key.isEmpty()) {
+                        keys[count] = key;
+                        ids[count++] = coupon.getId();
+                    }
+                }
+                return Table.build(keys, ids, count);
+            });
+        }
+    }
+
+    public void remove(String tenantId, Long couponId) {
+        tables.computeIfPresent(tenantId, (tenant, current) -> {
+            String[] keys = new String[current.size];
+            long[] ids = new long[current.size];
+            int count = current.copyEntries(keys, ids, Collections.singleton(couponId));
+            return Table.build(keys, ids, count);
+        });
+    }
+
+    private Table table(String tenantId) {
+        Table table = tables.get(tenantId);
+        return table == null ? EMPTY : table;
+    }
+
+    // FNV-1a, 64 bit; the two halves feed the Bloom filter's double hashing
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Collects codes for {@link #rebuild(Builder)} one coupon at a time, so the catalog can
+     * be streamed in without holding its entities.
+     */
+    public static final class Builder {
+
+        private final Map<String, Entries> tenants = new HashMap<>();
+
+        public void add(Coupon coupon) {
+            Entries entries = tenants.computeIfAbsent(coupon.getTenantId(), t -> new Entries());
+            String key = normalize(coupon.getCode());
+            if (key != null && !key.isEmpty() && coupon.getId() != null) {
+                entries.add(key, coupon.getId());
+            }
+        }
+    }
+
+    private static final class Entries {
+        private String[] keys = new String[16];
+        private long[] ids = new long[16];
+        private int count;
+
+        void add(String key, long id) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            keys[count] = key;
+            ids[count++] = id;
+        }
+    }
+
+    private static final class Table {
+        static final long ABSENT = Long.MIN_VALUE;
+
+        private final String[] keys;
+        private final long[] values;
+        private final int mask;
+        private final int size;
+        private final BloomFilter bloom;
+
+        private Table(int capacity, int expectedKeys) {
+            this.keys = new String[capacity];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+            this.size = expectedKeys;
+            this.bloom = BloomFilter.forKeys(expectedKeys);
+        }
+
+        // Keeps the load factor at or below one half so probe sequences stay short
+        static Table build(String[] keys, long[] values, int count) {
+            int capacity = Math.max(8, Integer.highestOneBit(Math.max(1, count * 2) - 1) << 1);
+            Table table = new Table(capacity, count);
+            int size = 0;
+            for (int i = 0; i < count; i++) {
+                if (table.insert(keys[i], values[i])) {
+                    size++;
+                }
+            }
+            return size == count ? table : table.withSize(size);
+        }
+
+        private Table withSize(int actualSize) {
+            String[] k = new String[actualSize];
+            long[] v = new long[actualSize];
+            int count = copyEntries(k, v, Set.of());
+            return build(k, v, count);
+        }
+
+        // Later entries win for duplicate codes
+        private boolean insert(String key, long value) {
+            long hash = hash(key);
+            int slot = (int) hash & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    values[slot] = value;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            bloom.add(hash);
+            return true;
+        }
+
+        long get(String key, long hash) {
+            if (!bloom.mightContain(hash)) {
+                return ABSENT;
+            }
+            int slot = (int) hash & mask;
+            String candidate;
+            while ((candidate = keys[slot]) != null) {
+                if (candidate.equals(key)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return ABSENT;
+        }
+
+        int copyEntries(String[] toKeys, long[] toValues, Set<Long> skipCouponIds) {
+            int count = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == null || skipCouponIds.contains(values[i])) {
+                    continue;
+                }
+                toKeys[count] = keys[i];
+                toValues[count++] = values[i];
+            }
+            return count;
+        }
+    }
+}
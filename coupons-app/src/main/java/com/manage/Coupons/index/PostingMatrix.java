@@ -0,0 +1,202 @@
+package com.manage.Coupons.index;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable key to coupon-id relation held entirely off-heap. Keys are 64-bit hashes in
+ * an open-addressing slot table; each key points at a posting list of its coupon ids,
+ * sorted and stored as varint-encoded deltas. Both live in direct buffers, so the heap
+ * cost of a matrix is a few object headers however many relations it holds.
+ *
+ * Distinct keys whose hashes collide share a posting list. Callers treat the result as
+ * a candidate set and verify candidates, so a collision can only add a candidate.
+ */
+public final class PostingMatrix {
+
+    // [long key hash][int postings offset][int posting count]
+    private static final int SLOT_BYTES = 16;
+
+    public static final PostingMatrix EMPTY = new Builder().build();
+
+    public interface EntryConsumer {
+        void accept(long keyHash, long couponId);
+    }
+
+    private final ByteBuffer slots;
+    private final ByteBuffer postings;
+    private final int mask;
+    private final int keys;
+    private final long relations;
+
+    private PostingMatrix(ByteBuffer slots, ByteBuffer postings, int capacity, int keys, long relations) {
+        this.slots = slots;
+        this.postings = postings;
+        this.mask = capacity - 1;
+        this.keys = keys;
+        this.relations = relations;
+    }
+
+    /**
+     * Passes every coupon id posted under the key to the consumer, in ascending order.
+     *
+     * @return the number of ids visited
+     */
+    public int forEach(long keyHash, LongConsumer consumer) {
+        long key = slotKey(keyHash);
+        int slot = (int) key & mask;
+        while (true) {
+            int base = slot * SLOT_BYTES;
+            long candidate = slots.getLong(base);
+            if (candidate == 0) {
+                return 0;
+            }
+            if (candidate == key) {
+                return decode(slots.getInt(base + 8), slots.getInt(base + 12), consumer);
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public void forEachEntry(EntryConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            int base = slot * SLOT_BYTES;
+            long key = slots.getLong(base);
+            if (key != 0) {
+                decode(slots.getInt(base + 8), slots.getInt(base + 12), id -> consumer.accept(key, id));
+            }
+        }
+    }
+
+    public int keys() {
+        return keys;
+    }
+
+    public long relations() {
+        return relations;
+    }
+
+    public long offHeapBytes() {
+        return (long) slots.capacity() + postings.capacity();
+    }
+
+    private int decode(int offset, int count, LongConsumer consumer) {
+        int position = offset;
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings.get(position++);
+                delta |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            id += delta;
+            consumer.accept(id);
+        }
+        return count;
+    }
+
+    // Zero marks an empty slot
+    private static long slotKey(long keyHash) {
+        return keyHash == 0 ? 1 : keyHash;
+    }
+
+    private static int varintLength(long value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Collects relations on the heap and lays them out off-heap in {@link #build()}. Not
+     * thread-safe; the staging maps are garbage once the matrix is built.
+     */
+    public static final class Builder {
+
+        private final Map<Long, Posting> staged = new HashMap<>();
+
+        public Builder add(long keyHash, long couponId) {
+            if (couponId < 0) {
+                throw new IllegalArgumentException("Coupon ids must not be negative");
+            }
+            staged.computeIfAbsent(slotKey(keyHash), k -> new Posting()).add(couponId);
+            return this;
+        }
+
+        public PostingMatrix build() {
+            int keyCount = staged.size();
+            long postingBytes = 0;
+            for (Posting posting : staged.values()) {
+                posting.size = dedupe(posting.ids, posting.size);
+                long previous = 0;
+                for (int i = 0; i < posting.size; i++) {
+                    postingBytes += varintLength(posting.ids[i] - previous);
+                    previous = posting.ids[i];
+                }
+            }
+            if (postingBytes > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Posting lists exceed 2 GiB; partition the catalog further");
+            }
+
+            // Load factor at most one half keeps probe sequences short
+            int capacity = Math.max(8, Integer.highestOneBit(Math.max(1, keyCount * 2) - 1) << 1);
+            ByteBuffer slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+            ByteBuffer postings = ByteBuffer.allocateDirect((int) postingBytes);
+            long relations = 0;
+            int mask = capacity - 1;
+            for (Map.Entry<Long, Posting> entry : staged.entrySet()) {
+                long key = entry.getKey();
+                Posting posting = entry.getValue();
+                int slot = (int) key & mask;
+                while (slots.getLong(slot * SLOT_BYTES) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.putLong(slot * SLOT_BYTES, key);
+                slots.putInt(slot * SLOT_BYTES + 8, postings.position());
+                slots.putInt(slot * SLOT_BYTES + 12, posting.size);
+                long previous = 0;
+                for (int i = 0; i < posting.size; i++) {
+                    long delta = posting.ids[i] - previous;
+                    while ((delta & ~0x7fL) != 0) {
+                        postings.put((byte) ((delta & 0x7f) | 0x80));
+                        delta >>>= 7;
+                    }
+                    postings.put((byte) delta);
+                    previous = posting.ids[i];
+                }
+                relations += posting.size;
+            }
+            return new PostingMatrix(slots, postings, capacity, keyCount, relations);
+        }
+
+        private static int dedupe(long[] ids, int size) {
+            Arrays.sort(ids, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || ids[i] != ids[unique - 1]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            return unique;
+        }
+
+        private static final class Posting {
+            private long[] ids = new long[2];
+            private int size;
+
+            void add(long id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = id;
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.manage.Coupons.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+
+/**
+ * Answers which product-keyed coupons could apply to a cart: product-wise coupons by
+ * their applicable products and BxGy coupons by their buy products, since neither can
+ * apply without one of those in the cart. The applicability path loads only these
+ * candidates instead of every active coupon.
+ *
+ * Each tenant's relation lives in an off-heap {@link PostingMatrix}. Writes land in a
+ * small copy-on-write overlay (coupons added since the matrix was built, and ids whose
+ * matrix postings are stale) that is folded into a new matrix once it passes
+ * {@link #COMPACTION_THRESHOLD} coupons, so heap use does not grow with the catalog.
+ */
+@Component
+public class ProductCouponIndex {
+
+    static final int COMPACTION_THRESHOLD = 4096;
+
+    private final ConcurrentMap<String, Partition> partitions = new ConcurrentHashMap<>();
+
+    public static boolean isProductKeyed(Coupon coupon) {
+        return coupon instanceof ProductWiseCoupon || coupon instanceof BxGyCoupon;
+    }
+
+    public void rebuild(Collection<? extends Coupon> coupons) {
+        Builder builder = new Builder();
+        coupons.forEach(builder::add);
+        rebuild(builder);
+    }
+
+    // Replaces every tenant's partition with the builder's; tenants it has not seen are dropped
+    public synchronized void rebuild(Builder builder) {
+        partitions.keySet().retainAll(builder.matrices.keySet());
+        for (Map.Entry<String, PostingMatrix.Builder> tenant : builder.matrices.entrySet()) {
+            partitions.put(tenant.getKey(), new Partition(tenant.getValue().build()));
+        }
+    }
+
+    public void put(Coupon coupon) {
+        if (!isProductKeyed(coupon) || coupon.getId() == null) {
+            return;
+        }
+        List<String> products = productKeys(coupon);
+        long[] keys = new long[products.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = CouponCodeIndex.hash(products.get(i));
+        }
+        partition(coupon.getTenantId()).put(coupon.getId(), keys);
+    }
+
+    public void remove(String tenantId, Long couponId) {
+        Partition partition = partitions.get(tenantId);
+        if (partition != null) {
+            partition.put(couponId, null);
+        }
+    }
+
+    /**
+     * Ids of the tenant's product-keyed coupons mentioning any of the products. Hash
+     * collisions may add ids that do not actually match, never drop ones that do.
+     */
+    public Set<Long> candidates(String tenantId, Collection<String> productIds) {
+        Partition partition = partitions.get(tenantId);
+        if (partition == null) {
+            return Set.of();
+        }
+        Snapshot snapshot = partition.snapshot;
+        Set<Long> candidates = new HashSet<>();
+        for (String productId : productIds) {
+            if (productId == null) {
+                continue;
+            }
+            long key = CouponCodeIndex.hash(productId);
+            snapshot.base.forEach(key, id -> {
+                if (!snapshot.stale.contains(id)) {
+                    candidates.add(id);
+                }
+            });
+            long[] added = snapshot.added.get(key);
+            if (added != null) {
+                for (long id : added) {
+                    candidates.add(id);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (Partition partition : partitions.values()) {
+            bytes += partition.snapshot.base.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    private Partition partition(String tenantId) {
+        return partitions.computeIfAbsent(tenantId, t -> new Partition(PostingMatrix.EMPTY));
+    }
+
+    private static List<String> productKeys(Coupon coupon) {
+        List<String> products = coupon instanceof ProductWiseCoupon productWise ? productWise.getApplicableProducts()
+                : ((BxGyCoupon) coupon).getBuyProducts();
+        return products == null ? List.of() : products;
+    }
+
+    /**
+     * Collects postings for {@link #rebuild(Builder)} one coupon at a time, so the catalog
+     * can be streamed in without holding its entities.
+     */
+    public static final class Builder {
+
+        private final Map<String, PostingMatrix.Builder> matrices = new HashMap<>();
+
+        public void add(Coupon coupon) {
+            if (isProductKeyed(coupon) && coupon.getId() != null) {
+                PostingMatrix.Builder builder = matrices.computeIfAbsent(coupon.getTenantId(),
+                        t -> new PostingMatrix.Builder());
+                for (String product : productKeys(coupon)) {
+                    builder.add(CouponCodeIndex.hash(product), coupon.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param stale   ids whose postings in {@code base} must be ignored (updated or deleted)
+     * @param added   key hash to ids posted since {@code base} was built
+     * @param keysById reverse of {@code added}, to retract a coupon's overlay postings
+     */
+    private record Snapshot(PostingMatrix base, Set<Long> stale, Map<Long, long[]> added,
+            Map<Long, long[]> keysById) {
+    }
+
+    private static final class Partition {
+
+        private volatile Snapshot snapshot;
+
+        Partition(PostingMatrix base) {
+            this.snapshot = new Snapshot(base, Set.of(), Map.of(), Map.of());
+        }
+
+        // Null keys remove the coupon
+        synchronized void put(long couponId, long[] keys) {
+            Snapshot current = snapshot;
+            Set<Long> stale = new HashSet<>(current.stale);
+            stale.add(couponId);
+            Map<Long, long[]> added = new HashMap<>(current.added);
+            Map<Long, long[]> keysById = new HashMap<>(current.keysById);
+
+            long[] previousKeys = keysById.remove(couponId);
+            if (previousKeys != null) {
+                for (long key : previousKeys) {
+                    long[] ids = without(added.get(key), couponId);
+                    if (ids.length == 0) {
+                        added.remove(key);
+                    } else {
+                        added.put(key, ids);
+                    }
+                }
+            }
+            if (keys != null && keys.length > 0) {
+                keysById.put(couponId, keys);
+                for (long key : keys) {
+                    added.put(key, with(added.get(key), couponId));
+                }
+            }
+
+            Snapshot next = new Snapshot(current.base, stale, added, keysById);
+            snapshot = stale.size() + keysById.size() > COMPACTION_THRESHOLD ? compact(next) : next;
+        }
+
+        private static Snapshot compact(Snapshot snapshot) {
+            PostingMatrix.Builder builder = new PostingMatrix.Builder();
+            snapshot.base.forEachEntry((key, id) -> {
+                if (!snapshot.stale.contains(id)) {
+                    builder.add(key, id);
+                }
+            });
+            for (Map.Entry<Long, long[]> entry : snapshot.added.entrySet()) {
+                for (long id : entry.getValue()) {
+                    builder.add(entry.getKey(), id);
+                }
+            }
+            return new Snapshot(builder.build(), Set.of(), Map.of(), Map.of());
+        }
+
+        private static long[] with(long[] ids, long id) {
+            if (ids == null) {
+                return new long[] { id };
+            }
+            for (long existing : ids) {
+                if (existing == id) {
+                    return ids;
+                }
+            }
+            long[] grown = Arrays.copyOf(ids, ids.length + 1);
+            grown[ids.length] = id;
+            return grown;
+        }
+
+        private static long[] without(long[] ids, long id) {
+            if (ids == null) {
+                return new long[0];
+            }
+            long[] kept = new long[ids.length];
+            int count = 0;
+            for (long existing : ids) {
+                if (existing != id) {
+                    kept[count++] = existing;
+                }
+            }
+            return Arrays.copyOf(kept, count);
+        }
+    }
+}
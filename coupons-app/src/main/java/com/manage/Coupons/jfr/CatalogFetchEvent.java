@@ -0,0 +1,25 @@
+package com.manage.Coupons.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+@Name(CatalogFetchEvent.NAME)
+@Label("Catalog Fetch")
+@Description("Loading the active coupons for an applicability request")
+@Category({"Coupons", "Evaluation"})
+@Threshold("5 ms")
+@StackTrace(false)
+@Setter
+public class CatalogFetchEvent extends Event {
+
+    public static final String NAME = "com.manage.Coupons.CatalogFetch";
+
+    @Label("Coupon Count")
+    private int couponCount;
+}
@@ -0,0 +1,31 @@
+package com.manage.Coupons.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+@Name(CouponApplyEvent.NAME)
+@Label("Coupon Apply")
+@Description("Applying a coupon to a cart")
+@Category({"Coupons", "Apply"})
+@Threshold("1 ms")
+@StackTrace(false)
+@Setter
+public class CouponApplyEvent extends Event {
+
+    public static final String NAME = "com.manage.Coupons.CouponApply";
+
+    @Label("Coupon Id")
+    private long couponId;
+
+    @Label("Coupon Type")
+    private String couponType;
+
+    @Label("Cart Lines")
+    private int cartLines;
+}
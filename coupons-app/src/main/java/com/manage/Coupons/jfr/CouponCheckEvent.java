@@ -0,0 +1,34 @@
+package com.manage.Coupons.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+@Name(CouponCheckEvent.NAME)
+@Label("Coupon Check")
+@Description("Checking whether one coupon applies to a cart")
+@Category({"Coupons", "Evaluation"})
+@Threshold("1 ms")
+@StackTrace(false)
+@Setter
+public class CouponCheckEvent extends Event {
+
+    public static final String NAME = "com.manage.Coupons.CouponCheck";
+
+    @Label("Coupon Id")
+    private long couponId;
+
+    @Label("Coupon Type")
+    private String couponType;
+
+    @Label("Cart Lines")
+    private int cartLines;
+
+    @Label("Applicable")
+    private boolean applicable;
+}
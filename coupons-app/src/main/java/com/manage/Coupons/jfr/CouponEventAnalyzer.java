@@ -0,0 +1,89 @@
+package com.manage.Coupons.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a flight recording taken with {@code jfr/coupons.jfc}: which coupons were
+ * slowest to check or apply, and how often they crossed the recording threshold.
+ *
+ * Usage: {@code java -cp coupons-app.jar com.manage.Coupons.jfr.CouponEventAnalyzer recording.jfr [top]}
+ */
+public class CouponEventAnalyzer {
+
+    private static final Set<String> PER_COUPON_EVENTS = Set.of(
+            CouponCheckEvent.NAME, CouponApplyEvent.NAME, DtoConversionEvent.NAME);
+
+    public record CouponTiming(String event, long couponId, String couponType, long count, Duration total,
+            Duration max) {
+
+        CouponTiming plus(Duration duration) {
+            return new CouponTiming(event, couponId, couponType, count + 1, total.plus(duration),
+                    duration.compareTo(max) > 0 ? duration : max);
+        }
+
+        public Duration average() {
+            return count == 0 ? Duration.ZERO : total.dividedBy(count);
+        }
+    }
+
+    // One recorded per-coupon event
+    record Sample(String event, long couponId, String couponType, Duration duration) {
+    }
+
+    public static List<CouponTiming> slowestCoupons(Path recording, int top) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (PER_COUPON_EVENTS.contains(name)) {
+                    samples.add(new Sample(name, event.getLong("couponId"), event.getString("couponType"),
+                            event.getDuration()));
+                }
+            }
+        }
+        return summarize(samples, top);
+    }
+
+    static List<CouponTiming> summarize(Iterable<Sample> samples, int top) {
+        Map<String, CouponTiming> timings = new HashMap<>();
+        for (Sample sample : samples) {
+            String key = sample.event() + "#" + sample.couponId();
+            CouponTiming timing = timings.get(key);
+            if (timing == null) {
+                timing = new CouponTiming(sample.event(), sample.couponId(), sample.couponType(), 0, Duration.ZERO,
+                        Duration.ZERO);
+            }
+            timings.put(key, timing.plus(sample.duration()));
+        }
+        List<CouponTiming> sorted = new ArrayList<>(timings.values());
+        sorted.sort(Comparator.comparing(CouponTiming::max).reversed());
+        return sorted.subList(0, Math.min(top, sorted.size()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CouponEventAnalyzer <recording.jfr> [top]");
+            return;
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        System.out.printf("%-36s %10s %-14s %8s %12s %12s%n", "event", "couponId", "type", "count", "avg(us)", "max(us)");
+        for (CouponTiming timing : slowestCoupons(Paths.get(args[0]), top)) {
+            System.out.printf("%-36s %10d %-14s %8d %12d %12d%n", timing.event(), timing.couponId(),
+                    timing.couponType(), timing.count(), timing.average().toNanos() / 1000,
+                    timing.max().toNanos() / 1000);
+        }
+    }
+}
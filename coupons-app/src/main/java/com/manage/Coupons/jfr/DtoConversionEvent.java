@@ -0,0 +1,28 @@
+package com.manage.Coupons.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import lombok.Setter;
+
+@Name(DtoConversionEvent.NAME)
+@Label("Coupon DTO Conversion")
+@Description("Converting a coupon entity to its response DTO")
+@Category({"Coupons", "Evaluation"})
+@Threshold("1 ms")
+@StackTrace(false)
+@Setter
+public class DtoConversionEvent extends Event {
+
+    public static final String NAME = "com.manage.Coupons.DtoConversion";
+
+    @Label("Coupon Id")
+    private long couponId;
+
+    @Label("Coupon Type")
+    private String couponType;
+}
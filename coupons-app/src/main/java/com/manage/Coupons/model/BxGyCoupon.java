@@ -5,6 +5,7 @@ import java.util.List;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Entity
@@ -14,11 +15,13 @@ public class BxGyCoupon extends Coupon {
     
     private List<String> buyProducts;
     
+    @NotNull
     @Min(1)
     private Integer buyQuantity;
     
     private List<String> getProducts;
     
+    @NotNull
     @Min(1)
     private Integer getQuantity;
     
@@ -0,0 +1,27 @@
+package com.manage.Coupons.model;
+
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Entity
+@Data
+@EqualsAndHashCode(callSuper = true)
+@DiscriminatorValue("CATEGORY_WISE")
+public class CategoryWiseCoupon extends Coupon {
+    
+    @NotBlank
+    private String category;
+    
+    @Min(0)
+    @Max(100)
+    private Double discountPercentage;
+    
+    @Min(0)
+    private Double fixedDiscount;
+    
+}
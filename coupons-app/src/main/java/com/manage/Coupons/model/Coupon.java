@@ -6,12 +6,17 @@ import lombok.Data;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.manage.Coupons.tenant.Tenants;
 
 @Entity
 @Data
-@Table(name = "coupons")
+@Table(name = "coupons", indexes = {
+    @Index(name = "idx_coupons_tenant_active", columnList = "tenant_id, active"),
+    @Index(name = "idx_coupons_tenant_code", columnList = "tenant_id, code")
+})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "coupon_type")
 @JsonTypeInfo(
@@ -22,6 +27,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 @JsonSubTypes({
     @JsonSubTypes.Type(value = CartWiseCoupon.class, name = "CART_WISE"),
     @JsonSubTypes.Type(value = ProductWiseCoupon.class, name = "PRODUCT_WISE"),
+    @JsonSubTypes.Type(value = CategoryWiseCoupon.class, name = "CATEGORY_WISE"),
     @JsonSubTypes.Type(value = BxGyCoupon.class, name = "BXGY")
 })
 public abstract class Coupon {
@@ -29,6 +35,11 @@ public abstract class Coupon {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Taken from the request's tenant header, never from the body
+    @Column(name = "tenant_id", nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String tenantId = Tenants.DEFAULT;
+    
     @NotBlank
     private String name;
     
@@ -46,6 +57,11 @@ public abstract class Coupon {
     
     private boolean active = true;
     
+    // Bulk lifecycle updates bump it too, so a concurrent single-coupon update fails instead of overwriting them
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @Column(name = "coupon_type", insertable = false, updatable = false)
     private String couponType;
     
@@ -1,5 +1,5 @@
 package com.manage.Coupons.model;
 
 public enum CouponType {
-    CART_WISE, PRODUCT_WISE, BXGY
+    CART_WISE, PRODUCT_WISE, CATEGORY_WISE, BXGY
 }
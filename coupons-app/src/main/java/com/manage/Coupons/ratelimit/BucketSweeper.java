@@ -0,0 +1,62 @@
+package com.manage.Coupons.ratelimit;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.config.RateLimitProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically drops refilled buckets from every registered table, so idle clients stop
+ * occupying entries without the request path ever scanning a table.
+ */
+@Component
+public class BucketSweeper {
+
+    @Autowired
+    private RateLimitProperties rateLimitProperties;
+
+    private final List<BucketTable> tables = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        if (!rateLimitProperties.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = rateLimitProperties.getSweepInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public void register(BucketTable table) {
+        tables.add(table);
+    }
+
+    void sweep() {
+        long now = System.nanoTime();
+        for (BucketTable table : tables) {
+            table.sweep(now);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.manage.Coupons.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongFunction;
+
+/**
+ * Token buckets by key. Lookups never lock: the table is a {@link ConcurrentHashMap} and
+ * is bounded by {@link #sweep}, which runs off the request path, drops buckets that have
+ * refilled completely and then trims the table back to its bound, evicting the buckets
+ * closest to full first since resetting those gives away the fewest tokens.
+ *
+ * Between sweeps the table may grow to twice its bound; past that, keys it does not hold
+ * share a single overflow bucket until a sweep makes room.
+ */
+public class BucketTable {
+
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private volatile TokenBucket overflow;
+
+    public BucketTable(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Bucket table needs room for at least one bucket");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public TokenBucket get(String key, long nowNanos, LongFunction<TokenBucket> create) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= 2 * maxEntries) {
+            return overflow(nowNanos, create);
+        }
+        return buckets.computeIfAbsent(key, k -> create.apply(nowNanos));
+    }
+
+    public void sweep(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+        int excess = buckets.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<String, TokenBucket>> entries = new ArrayList<>(buckets.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().theoreticalArrival()));
+        for (int i = 0; i < excess && i < entries.size(); i++) {
+            buckets.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket overflow(long nowNanos, LongFunction<TokenBucket> create) {
+        TokenBucket bucket = overflow;
+        if (bucket == null) {
+            synchronized (this) {
+                bucket = overflow;
+                if (bucket == null) {
+                    bucket = create.apply(nowNanos);
+                    overflow = bucket;
+                }
+            }
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,40 @@
+package com.manage.Coupons.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed in-flight cap. Callers that cannot get a permit are rejected immediately
+ * rather than queued.
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,88 @@
+package com.manage.Coupons.ratelimit;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.manage.Coupons.config.RateLimitProperties;
+import com.manage.Coupons.exception.RateLimitExceededException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admission control for one endpoint: token buckets followed by the global concurrency
+ * limiter shared by all guarded endpoints. Buckets are keyed by the caller's identity,
+ * the authenticated principal or else the remote address, which the caller cannot choose
+ * freely. The client header only splits that identity's budget: each client id gets the
+ * endpoint limit, and all of an identity's clients together get
+ * {@code clientsPerIdentity} times it, so sending a fresh id per request gains nothing.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    // Keeps a tracked entry small however long a client id is sent
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final String endpoint;
+    private final RateLimitProperties.EndpointLimit limit;
+    private final RateLimitProperties properties;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final BucketTable identities;
+    private final BucketTable clients;
+
+    public RateLimitInterceptor(String endpoint, RateLimitProperties.EndpointLimit limit,
+            RateLimitProperties properties, ConcurrencyLimiter concurrencyLimiter) {
+        this.endpoint = endpoint;
+        this.limit = limit;
+        this.properties = properties;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.identities = new BucketTable(properties.getMaxTrackedClients());
+        this.clients = new BucketTable(properties.getMaxTrackedClients());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.nanoTime();
+        String identity = resolveIdentity(request);
+        String clientId = request.getHeader(properties.getClientHeader());
+        String clientKey = identity + '\n' + (clientId == null ? "" : clientId.trim());
+        if (clientKey.length() > MAX_KEY_LENGTH) {
+            clientKey = clientKey.substring(0, MAX_KEY_LENGTH);
+        }
+        long waitNanos = clients.get(clientKey, now,
+                t -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), t)).tryConsume(now);
+        if (waitNanos <= 0) {
+            int share = Math.max(1, properties.getClientsPerIdentity());
+            waitNanos = identities.get(identity, now,
+                    t -> new TokenBucket(limit.getCapacity() * share, limit.getRefillPerSecond() * share, t))
+                    .tryConsume(now);
+        }
+        if (waitNanos > 0) {
+            throw new RateLimitExceededException("Rate limit exceeded for " + endpoint,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw new RateLimitExceededException("Too many concurrent requests",
+                    properties.getConcurrencyRetryAfterSeconds());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        // Only reached when preHandle returned true, i.e. a permit is held
+        concurrencyLimiter.release();
+    }
+
+    private static String resolveIdentity(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "principal:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+
+    public List<BucketTable> tables() {
+        return List.of(identities, clients);
+    }
+}
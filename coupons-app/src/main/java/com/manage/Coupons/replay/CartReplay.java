@@ -0,0 +1,273 @@
+package com.manage.Coupons.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.manage.Coupons.category.CategoryCatalog;
+import com.manage.Coupons.engine.Application;
+import com.manage.Coupons.engine.CartSnapshot;
+import com.manage.Coupons.engine.CategoryTree;
+import com.manage.Coupons.engine.CouponRule;
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.service.CouponRuleMapper;
+
+/**
+ * Backtests a candidate catalog against historical carts without the web stack. Carts
+ * are streamed from an NDJSON file in batches; each batch is parsed and evaluated on a
+ * fork-join pool while the next one is read. Coupons are compiled with the same
+ * {@link CouponRuleMapper} the service uses, so results match {@code /applicable-coupons}
+ * and {@code /apply-coupon} except that validity windows are ignored (carts carry no
+ * timestamp) and only the {@code active} flag is honored.
+ *
+ * Usage: {@code java -cp coupons-app.jar com.manage.Coupons.replay.CartReplay catalog.ndjson carts.ndjson [categories.json]}
+ * where the catalog is in the format written by {@code GET /api/coupons/export}.
+ */
+public class CartReplay {
+
+    static final int BATCH_SIZE = 4096;
+    static final int LEAF_SIZE = 256;
+
+    public record CouponOutcome(Long couponId, String code, long applicableCarts, double totalDiscount,
+            long bestCarts, double bestDiscount) {
+    }
+
+    /**
+     * {@code applicableCarts}/{@code totalDiscount} count every cart a coupon applies to;
+     * {@code bestCarts}/{@code bestDiscount} only those where it is the biggest saving,
+     * which is the cost if each customer uses one coupon.
+     */
+    public record ReplayReport(long carts, long malformedCarts, long cartsWithCoupon, Duration elapsed,
+            List<CouponOutcome> coupons) {
+
+        public double cartsPerSecond() {
+            return elapsed.isZero() ? 0 : carts * 1_000_000_000.0 / elapsed.toNanos();
+        }
+
+        public double campaignCost() {
+            return coupons.stream().mapToDouble(CouponOutcome::bestDiscount).sum();
+        }
+    }
+
+    private final List<CouponRule> rules;
+    private final ObjectReader cartReader;
+    private final ForkJoinPool pool;
+
+    public CartReplay(List<Coupon> catalog, CategoryTree categories, ObjectMapper objectMapper, ForkJoinPool pool) {
+        List<CouponRule> compiled = new ArrayList<>(catalog.size());
+        for (Coupon coupon : catalog) {
+            CouponRule rule = CouponRuleMapper.toRule(coupon, categories);
+            if (rule.isActive()) {
+                compiled.add(rule);
+            }
+        }
+        this.rules = List.copyOf(compiled);
+        this.cartReader = objectMapper.readerFor(Cart.class);
+        this.pool = pool;
+    }
+
+    public static List<Coupon> readCatalog(Path ndjson, ObjectMapper objectMapper) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(Coupon.class);
+        List<Coupon> catalog = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(ndjson, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    catalog.add(reader.readValue(line));
+                }
+            }
+        }
+        return catalog;
+    }
+
+    public ReplayReport replay(Path carts) throws IOException {
+        long started = System.nanoTime();
+        Tally total = new Tally(rules.size());
+        ForkJoinTask<Tally> pending = null;
+        try (BufferedReader in = Files.newBufferedReader(carts, StandardCharsets.UTF_8)) {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(line);
+                if (batch.size() == BATCH_SIZE) {
+                    // Keep one batch in flight so reading overlaps with evaluation
+                    ForkJoinTask<Tally> next = pool.submit(new ReplayTask(batch, 0, batch.size()));
+                    if (pending != null) {
+                        total.add(pending.join());
+                    }
+                    pending = next;
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                ForkJoinTask<Tally> next = pool.submit(new ReplayTask(batch, 0, batch.size()));
+                if (pending != null) {
+                    total.add(pending.join());
+                }
+                pending = next;
+            }
+        }
+        if (pending != null) {
+            total.add(pending.join());
+        }
+        return total.report(rules, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    // Per-subtask counters, merged on join so leaves never share mutable state
+    static final class Tally {
+        long carts;
+        long malformed;
+        long withCoupon;
+        final long[] applicable;
+        final double[] discount;
+        final long[] best;
+        final double[] bestDiscount;
+
+        Tally(int coupons) {
+            applicable = new long[coupons];
+            discount = new double[coupons];
+            best = new long[coupons];
+            bestDiscount = new double[coupons];
+        }
+
+        void add(Tally other) {
+            carts += other.carts;
+            malformed += other.malformed;
+            withCoupon += other.withCoupon;
+            for (int i = 0; i < applicable.length; i++) {
+                applicable[i] += other.applicable[i];
+                discount[i] += other.discount[i];
+                best[i] += other.best[i];
+                bestDiscount[i] += other.bestDiscount[i];
+            }
+        }
+
+        ReplayReport report(List<CouponRule> rules, Duration elapsed) {
+            List<CouponOutcome> coupons = new ArrayList<>(rules.size());
+            for (int i = 0; i < rules.size(); i++) {
+                CouponRule rule = rules.get(i);
+                coupons.add(new CouponOutcome(rule.getId(), rule.getCode(), applicable[i], discount[i], best[i],
+                        bestDiscount[i]));
+            }
+            coupons.sort(Comparator.comparingDouble(CouponOutcome::bestDiscount).reversed());
+            return new ReplayReport(carts, malformed, withCoupon, elapsed, coupons);
+        }
+    }
+
+    private final class ReplayTask extends RecursiveTask<Tally> {
+
+        private final List<String> lines;
+        private final int from;
+        private final int to;
+
+        ReplayTask(List<String> lines, int from, int to) {
+            this.lines = lines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                ReplayTask left = new ReplayTask(lines, from, mid);
+                left.fork();
+                Tally tally = new ReplayTask(lines, mid, to).compute();
+                tally.add(left.join());
+                return tally;
+            }
+            Tally tally = new Tally(rules.size());
+            for (int i = from; i < to; i++) {
+                CartSnapshot cart;
+                // A "null" line or a null item parses but fails to map; both count as malformed
+                try {
+                    cart = CouponRuleMapper.toSnapshot(cartReader.readValue(lines.get(i)));
+                } catch (IOException | RuntimeException e) {
+                    tally.malformed++;
+                    continue;
+                }
+                tally.carts++;
+                evaluate(cart, tally);
+            }
+            return tally;
+        }
+
+        private void evaluate(CartSnapshot cart, Tally tally) {
+            int bestRule = -1;
+            double bestSaving = 0;
+            for (int r = 0; r < rules.size(); r++) {
+                CouponRule rule = rules.get(r);
+                Application application;
+                try {
+                    if (!rule.evaluate(cart).applicable()) {
+                        continue;
+                    }
+                    application = rule.apply(cart);
+                } catch (RuntimeException e) {
+                    // As in the service, a rule that fails on a cart does not apply to it
+                    continue;
+                }
+                double saving = cart.totalAmount() - application.totalAmount();
+                tally.applicable[r]++;
+                tally.discount[r] += saving;
+                if (bestRule < 0 || saving > bestSaving) {
+                    bestRule = r;
+                    bestSaving = saving;
+                }
+            }
+            if (bestRule >= 0) {
+                tally.withCoupon++;
+                tally.best[bestRule]++;
+                tally.bestDiscount[bestRule] += bestSaving;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CartReplay <catalog.ndjson> <carts.ndjson> [categories.json]");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        CategoryTree categories = CategoryTree.empty();
+        if (args.length > 2) {
+            try (InputStream in = Files.newInputStream(Paths.get(args[2]))) {
+                categories = CategoryCatalog.read(in, objectMapper);
+            }
+        }
+        List<Coupon> catalog = readCatalog(Paths.get(args[0]), objectMapper);
+        CartReplay replay = new CartReplay(catalog, categories, objectMapper, ForkJoinPool.commonPool());
+        ReplayReport report = replay.replay(Paths.get(args[1]));
+
+        System.out.printf("%d carts (%d malformed) in %d ms, %.0f carts/sec on %d threads%n", report.carts(),
+                report.malformedCarts(), report.elapsed().toMillis(), report.cartsPerSecond(),
+                ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("%d carts had an applicable coupon; campaign cost %.2f%n", report.cartsWithCoupon(),
+                report.campaignCost());
+        System.out.printf("%10s %-20s %12s %16s %10s %16s%n", "couponId", "code", "applicable", "totalDiscount",
+                "best", "bestDiscount");
+        for (CouponOutcome coupon : report.coupons()) {
+            System.out.printf("%10d %-20s %12d %16.2f %10d %16.2f%n", coupon.couponId(), coupon.code(),
+                    coupon.applicableCarts(), coupon.totalDiscount(), coupon.bestCarts(), coupon.bestDiscount());
+        }
+    }
+}
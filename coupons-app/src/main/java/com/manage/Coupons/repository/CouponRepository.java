@@ -0,0 +1,125 @@
+package com.manage.Coupons.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.manage.Coupons.analysis.CouponTerms;
+import com.manage.Coupons.model.Coupon;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface CouponRepository extends JpaRepository<Coupon, Long> {
+    
+    // Bulk lifecycle filter, skipping coupons already in the target active state; null criteria match all
+    String BULK_FILTER = "AND (:type IS NULL OR c.couponType = :type) " +
+           "AND (:codePrefix IS NULL OR UPPER(c.code) LIKE :codePrefix ESCAPE '!') " +
+           "AND (:minId IS NULL OR c.id >= :minId) AND (:maxId IS NULL OR c.id <= :maxId) " +
+           "AND (:windowEnd IS NULL OR c.validFrom IS NULL OR c.validFrom <= :windowEnd) " +
+           "AND (:windowStart IS NULL OR c.validTo IS NULL OR c.validTo >= :windowStart) " +
+           "AND (:active IS NULL OR c.active <> :active) ";
+    
+    // True when the new bounds, with a missing one taken from the row, would put validFrom after validTo
+    String INVERTS_WINDOW = "(COALESCE(:validFrom, c.validFrom) IS NOT NULL AND COALESCE(:validTo, c.validTo) IS NOT NULL " +
+           "AND COALESCE(:validFrom, c.validFrom) > COALESCE(:validTo, c.validTo)) ";
+    
+    @Query("SELECT c FROM Coupon c WHERE c.tenantId = :tenantId AND c.active = true AND " +
+           "(:currentTime BETWEEN c.validFrom AND c.validTo OR c.validFrom IS NULL)")
+    List<Coupon> findActiveCoupons(@Param("tenantId") String tenantId, @Param("currentTime") LocalDateTime currentTime);
+    
+    @Query("SELECT MIN(c.validFrom) FROM Coupon c WHERE c.tenantId = :tenantId AND c.active = true " +
+           "AND c.validFrom > :currentTime")
+    LocalDateTime findNextValidFrom(@Param("tenantId") String tenantId, @Param("currentTime") LocalDateTime currentTime);
+    
+    // Coupons that are not keyed by product and so are candidates for every cart
+    @Query("SELECT c FROM Coupon c WHERE c.tenantId = :tenantId AND c.active = true " +
+           "AND TYPE(c) NOT IN (ProductWiseCoupon, BxGyCoupon) " +
+           "AND (:currentTime BETWEEN c.validFrom AND c.validTo OR c.validFrom IS NULL)")
+    List<Coupon> findActiveUnkeyedCoupons(@Param("tenantId") String tenantId,
+            @Param("currentTime") LocalDateTime currentTime);
+    
+    @Query("SELECT c FROM Coupon c WHERE c.tenantId = :tenantId AND c.id IN :ids AND c.active = true " +
+           "AND (:currentTime BETWEEN c.validFrom AND c.validTo OR c.validFrom IS NULL)")
+    List<Coupon> findActiveCouponsByIdIn(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids,
+            @Param("currentTime") LocalDateTime currentTime);
+    
+    // Locks the matched rows until the bulk update commits, so concurrent edits wait and then fail their version check
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Coupon c WHERE c.tenantId = :tenantId " + BULK_FILTER + "ORDER BY c.id")
+    List<Long> findBulkTargets(@Param("tenantId") String tenantId, @Param("type") String type,
+            @Param("codePrefix") String codePrefix, @Param("minId") Long minId, @Param("maxId") Long maxId,
+            @Param("windowStart") LocalDateTime windowStart, @Param("windowEnd") LocalDateTime windowEnd,
+            @Param("active") Boolean active);
+    
+    @Query("SELECT c.id FROM Coupon c WHERE c.tenantId = :tenantId AND c.id IN :ids AND " + INVERTS_WINDOW +
+           "ORDER BY c.id")
+    List<Long> findInvertedByExtend(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids,
+            @Param("validFrom") LocalDateTime validFrom, @Param("validTo") LocalDateTime validTo);
+    
+    // The filter is re-applied so a row that stopped matching since it was selected is left alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Coupon c SET c.active = :active, c.version = c.version + 1 " +
+           "WHERE c.tenantId = :tenantId AND c.id IN :ids " + BULK_FILTER)
+    int updateActive(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids,
+            @Param("type") String type, @Param("codePrefix") String codePrefix, @Param("minId") Long minId,
+            @Param("maxId") Long maxId, @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd, @Param("active") Boolean active);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Coupon c SET c.validFrom = COALESCE(:validFrom, c.validFrom), " +
+           "c.validTo = COALESCE(:validTo, c.validTo), c.version = c.version + 1 " +
+           "WHERE c.tenantId = :tenantId AND c.id IN :ids " + BULK_FILTER + "AND NOT " + INVERTS_WINDOW)
+    int updateValidity(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids,
+            @Param("type") String type, @Param("codePrefix") String codePrefix, @Param("minId") Long minId,
+            @Param("maxId") Long maxId, @Param("windowStart") LocalDateTime windowStart,
+            @Param("windowEnd") LocalDateTime windowEnd, @Param("active") Boolean active,
+            @Param("validFrom") LocalDateTime validFrom, @Param("validTo") LocalDateTime validTo);
+    
+    List<Coupon> findByTenantId(String tenantId);
+    
+    Optional<Coupon> findByIdAndTenantId(Long id, String tenantId);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Coupon c WHERE c.tenantId = :tenantId ORDER BY c.id")
+    Stream<Coupon> streamByTenantId(@Param("tenantId") String tenantId);
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Coupon c ORDER BY c.tenantId, c.id")
+    Stream<Coupon> streamAll();
+    
+    // Active coupons reduced to the terms dominance analysis compares
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.manage.Coupons.analysis.CouponTerms(c.id, c.code, c.couponType, c.validFrom, c.validTo, " +
+           "TREAT(c AS CartWiseCoupon).minCartAmount, TREAT(c AS CartWiseCoupon).discountPercentage, " +
+           "TREAT(c AS CartWiseCoupon).fixedDiscount, TREAT(c AS ProductWiseCoupon).applicableProducts, " +
+           "TREAT(c AS ProductWiseCoupon).discountPercentage, TREAT(c AS ProductWiseCoupon).fixedDiscount, " +
+           "TREAT(c AS BxGyCoupon).buyProducts, TREAT(c AS BxGyCoupon).buyQuantity, " +
+           "TREAT(c AS BxGyCoupon).getProducts, TREAT(c AS BxGyCoupon).getQuantity, " +
+           "TREAT(c AS BxGyCoupon).repetitionLimit) " +
+           "FROM Coupon c WHERE c.tenantId = :tenantId AND c.active = true ORDER BY c.id")
+    Stream<CouponTerms> streamActiveTerms(@Param("tenantId") String tenantId);
+    
+    List<Coupon> findByType(String type);
+    
+    boolean existsByTenantIdAndCode(String tenantId, String code);
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.manage.Coupons.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Monotonic version of each tenant's coupon catalog. Every write to a tenant's catalog
+ * bumps its version only, so anything derived from one tenant's catalog can be keyed or
+ * validated against it without being disturbed by other tenants' writes.
+ *
+ * A tenant is known once it has written, or had coupons when the service started. Read
+ * paths keep per-tenant state only for known tenants, so requests naming arbitrary
+ * tenants cannot grow the caches.
+ */
+@Component
+public class CatalogVersion {
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(String tenantId) {
+        AtomicLong version = versions.get(tenantId);
+        return version == null ? 0 : version.get();
+    }
+
+    public boolean isKnown(String tenantId) {
+        return versions.containsKey(tenantId);
+    }
+
+    public void register(String tenantId) {
+        versions.putIfAbsent(tenantId, new AtomicLong());
+    }
+
+    public long bump(String tenantId) {
+        return versions.computeIfAbsent(tenantId, t -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,60 @@
+package com.manage.Coupons.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.repository.CouponRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Streams a tenant's whole catalog as NDJSON. Rows are read through a JDBC cursor and each
+ * entity is detached once written, so memory use does not grow with the catalog.
+ */
+@Service
+public class CouponExportService {
+
+    private static final int FLUSH_EVERY = 256;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportCoupons(String tenantId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Coupon.class);
+        long exported = 0;
+        try (Stream<Coupon> coupons = couponRepository.streamByTenantId(tenantId);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<Coupon> it = coupons.iterator();
+            while (it.hasNext()) {
+                Coupon coupon = it.next();
+                writer.writeValue(generator, coupon);
+                generator.writeRaw('\n');
+                entityManager.detach(coupon);
+                if (++exported % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return exported;
+    }
+}
@@ -0,0 +1,65 @@
+package com.manage.Coupons.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.category.CategoryCatalog;
+import com.manage.Coupons.engine.CategoryTree;
+import com.manage.Coupons.engine.CouponRule;
+import com.manage.Coupons.model.Coupon;
+
+/**
+ * Compiled engine rules per tenant, so each coupon is mapped to its {@link CouponRule}
+ * once per catalog version rather than once per candidate per request. Rules are
+ * compiled lazily as coupons are evaluated, and a tenant's rules are dropped together
+ * when its catalog version moves on.
+ */
+@Component
+public class CouponRuleCache {
+
+    private final ConcurrentMap<String, Generation> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    public CouponRule rule(String tenantId, long catalogVersion, Coupon coupon) {
+        CategoryTree categories = categoryCatalog.tree();
+        if (tenantId == null || coupon.getId() == null) {
+            return CouponRuleMapper.toRule(coupon, categories);
+        }
+        Generation generation = generations.get(tenantId);
+        if (generation == null || !generation.matches(catalogVersion, categories)) {
+            generation = generations.compute(tenantId, (t, current) -> current != null
+                    && (current.catalogVersion > catalogVersion || current.matches(catalogVersion, categories))
+                            ? current : new Generation(catalogVersion, categories));
+        }
+        if (!generation.matches(catalogVersion, categories)) {
+            // Read an older catalog than the cached rules were compiled for
+            return CouponRuleMapper.toRule(coupon, categories);
+        }
+        return generation.rules.computeIfAbsent(coupon.getId(), id -> CouponRuleMapper.toRule(coupon, categories));
+    }
+
+    public int size(String tenantId) {
+        Generation generation = generations.get(tenantId);
+        return generation == null ? 0 : generation.rules.size();
+    }
+
+    private static final class Generation {
+        private final long catalogVersion;
+        private final CategoryTree categories;
+        private final ConcurrentMap<Long, CouponRule> rules = new ConcurrentHashMap<>();
+
+        Generation(long catalogVersion, CategoryTree categories) {
+            this.catalogVersion = catalogVersion;
+            this.categories = categories;
+        }
+
+        boolean matches(long version, CategoryTree tree) {
+            return catalogVersion == version && categories == tree;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.manage.Coupons.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.manage.Coupons.engine.Application;
+import com.manage.Coupons.engine.BxGyRule;
+import com.manage.Coupons.engine.CartLine;
+import com.manage.Coupons.engine.CartSnapshot;
+import com.manage.Coupons.engine.CartWiseRule;
+import com.manage.Coupons.engine.CategoryTree;
+import com.manage.Coupons.engine.CategoryWiseRule;
+import com.manage.Coupons.engine.CouponRule;
+import com.manage.Coupons.engine.ProductWiseRule;
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.CartItem;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.CategoryWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+
+/**
+ * Translates between the JPA/web model and the coupon engine's value objects.
+ */
+public final class CouponRuleMapper {
+
+    private CouponRuleMapper() {
+    }
+
+    public static CouponRule toRule(Coupon coupon, CategoryTree categories) {
+        if (coupon instanceof CartWiseCoupon cartWise) {
+            return new CartWiseRule(coupon.getId(), coupon.getCode(), coupon.isActive(),
+                    coupon.getValidFrom(), coupon.getValidTo(),
+                    orZero(cartWise.getMinCartAmount()), cartWise.getDiscountPercentage(), cartWise.getFixedDiscount());
+        } else if (coupon instanceof ProductWiseCoupon productWise) {
+            return new ProductWiseRule(coupon.getId(), coupon.getCode(), coupon.isActive(),
+                    coupon.getValidFrom(), coupon.getValidTo(),
+                    orEmpty(productWise.getApplicableProducts()), productWise.getDiscountPercentage(),
+                    productWise.getFixedDiscount());
+        } else if (coupon instanceof CategoryWiseCoupon categoryWise) {
+            return new CategoryWiseRule(coupon.getId(), coupon.getCode(), coupon.isActive(),
+                    coupon.getValidFrom(), coupon.getValidTo(),
+                    categories, categoryWise.getCategory(), categoryWise.getDiscountPercentage(),
+                    categoryWise.getFixedDiscount());
+        } else if (coupon instanceof BxGyCoupon bxgy) {
+            // Missing quantities make the coupon unreachable rather than free
+            boolean complete = bxgy.getBuyQuantity() != null && bxgy.getGetQuantity() != null;
+            return new BxGyRule(coupon.getId(), coupon.getCode(), coupon.isActive(),
+                    coupon.getValidFrom(), coupon.getValidTo(),
+                    orEmpty(bxgy.getBuyProducts()), complete ? bxgy.getBuyQuantity() : Integer.MAX_VALUE,
+                    orEmpty(bxgy.getGetProducts()), complete ? bxgy.getGetQuantity() : 1,
+                    bxgy.getRepetitionLimit() == null ? 1 : bxgy.getRepetitionLimit());
+        }
+        throw new IllegalArgumentException("Unsupported coupon type: " + coupon.getClass().getSimpleName());
+    }
+
+    public static CartSnapshot toSnapshot(Cart cart) {
+        List<CartItem> items = cart.getItems() == null ? List.of() : cart.getItems();
+        List<CartLine> lines = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            lines.add(new CartLine(item.getProductId(),
+                    item.getPrice() == null ? 0 : item.getPrice(),
+                    item.getQuantity() == null ? 0 : item.getQuantity()));
+        }
+        if (cart.getTotalAmount() == null) {
+            return CartSnapshot.of(lines);
+        }
+        return new CartSnapshot(lines, cart.getTotalAmount());
+    }
+
+    public static Cart toCart(Cart cart, Application application) {
+        List<CartItem> items = cart.getItems() == null ? List.of() : cart.getItems();
+        List<CartItem> updatedItems = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            CartItem updated = new CartItem();
+            updated.setProductId(item.getProductId());
+            updated.setProductName(item.getProductName());
+            updated.setPrice(item.getPrice());
+            updated.setQuantity(item.getQuantity());
+            updated.setDiscountedPrice(application.unitPrices()[i]);
+            updatedItems.add(updated);
+        }
+        Cart updatedCart = new Cart();
+        updatedCart.setId(cart.getId());
+        updatedCart.setItems(updatedItems);
+        updatedCart.setTotalAmount(application.totalAmount());
+        return updatedCart;
+    }
+
+    private static double orZero(Double value) {
+        return value == null ? 0 : value;
+    }
+
+    private static List<String> orEmpty(List<String> values) {
+        return values == null ? List.of() : values;
+    }
+}
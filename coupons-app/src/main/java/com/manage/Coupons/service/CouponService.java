@@ -0,0 +1,585 @@
+package com.manage.Coupons.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import com.manage.Coupons.analysis.CouponDominanceAnalyzer;
+import com.manage.Coupons.audit.RedemptionAuditLog;
+import com.manage.Coupons.audit.RedemptionEvent;
+import com.manage.Coupons.cache.ApplicabilityCache;
+import com.manage.Coupons.cache.CatalogListingCache;
+import com.manage.Coupons.category.CategoryCatalog;
+import com.manage.Coupons.config.CacheProperties;
+import com.manage.Coupons.dto.ApplicableCouponResponse;
+import com.manage.Coupons.dto.ApplicableCouponsResult;
+import com.manage.Coupons.dto.ApplyOutcome;
+import com.manage.Coupons.dto.BulkLifecycleRequest;
+import com.manage.Coupons.dto.BulkLifecycleResponse;
+import com.manage.Coupons.dto.CatalogChange;
+import com.manage.Coupons.dto.CatalogChangesResponse;
+import com.manage.Coupons.dto.CouponDTO;
+import com.manage.Coupons.dto.DominanceReport;
+import com.manage.Coupons.engine.Application;
+import com.manage.Coupons.engine.CartSnapshot;
+import com.manage.Coupons.engine.CouponRule;
+import com.manage.Coupons.engine.Evaluation;
+import com.manage.Coupons.evaluation.CouponPriority;
+import com.manage.Coupons.evaluation.ParallelEvaluator;
+import com.manage.Coupons.exception.ConstraintViolationException;
+import com.manage.Coupons.exception.CouponNotApplicable;
+import com.manage.Coupons.exception.CouponNotFoundException;
+import com.manage.Coupons.index.CouponCodeIndex;
+import com.manage.Coupons.index.ProductCouponIndex;
+import com.manage.Coupons.jfr.CatalogFetchEvent;
+import com.manage.Coupons.jfr.CouponApplyEvent;
+import com.manage.Coupons.jfr.CouponCheckEvent;
+import com.manage.Coupons.jfr.DtoConversionEvent;
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.CartItem;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.CategoryWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+import com.manage.Coupons.repository.CouponRepository;
+import com.manage.Coupons.sync.CatalogChangeLog;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class CouponService {
+    
+    // Bounds IN lists when a cart's products link to many coupons, or a bulk update matches many
+    private static final int ID_BATCH_SIZE = 1000;
+    
+    @Autowired
+    private CouponRepository couponRepository;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private ApplicabilityCache applicabilityCache;
+    
+    @Autowired
+    private CacheProperties cacheProperties;
+    
+    @Autowired
+    private RedemptionAuditLog redemptionAuditLog;
+    
+    @Autowired
+    private CatalogListingCache catalogListingCache;
+    
+    @Autowired
+    private CouponCodeIndex couponCodeIndex;
+    
+    @Autowired
+    private CatalogChangeLog catalogChangeLog;
+    
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+    
+    @Autowired
+    private CouponRuleCache couponRuleCache;
+    
+    @Autowired
+    private ProductCouponIndex productCouponIndex;
+    
+    @Autowired
+    private ParallelEvaluator parallelEvaluator;
+    
+    @Autowired
+    private CouponDominanceAnalyzer dominanceAnalyzer;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    // Streams the catalog into the index builders, detaching each coupon once indexed so
+    // startup memory does not grow with the number of coupons
+    @PostConstruct
+    public void initializeCatalog() {
+        CouponCodeIndex.Builder codes = new CouponCodeIndex.Builder();
+        ProductCouponIndex.Builder products = new ProductCouponIndex.Builder();
+        Set<String> tenants = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Coupon> coupons = couponRepository.streamAll()) {
+                coupons.forEach(coupon -> {
+                    codes.add(coupon);
+                    products.add(coupon);
+                    tenants.add(coupon.getTenantId());
+                    entityManager.detach(coupon);
+                });
+            }
+        });
+        couponCodeIndex.rebuild(codes);
+        productCouponIndex.rebuild(products);
+        tenants.forEach(tenantId -> {
+            catalogVersion.register(tenantId);
+            dominanceAnalyzer.schedule(tenantId);
+        });
+    }
+    
+    public List<Coupon> getAllCoupons(String tenantId) {
+        return couponRepository.findByTenantId(tenantId);
+    }
+    
+    public CatalogListingCache.SerializedListing getCouponListing(String tenantId, CatalogListingCache.Listing listing) {
+        return catalogListingCache.get(tenantId, listing, catalogVersion.current(tenantId), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!catalogVersion.isKnown(tenantId)) {
+                return new CatalogListingCache.Snapshot(List.of(), now.plus(cacheProperties.getListing().getMaxTtl()));
+            }
+            if (listing == CatalogListingCache.Listing.ALL) {
+                return new CatalogListingCache.Snapshot(getAllCoupons(tenantId),
+                        now.plus(cacheProperties.getListing().getMaxTtl()));
+            }
+            List<Coupon> activeCoupons = couponRepository.findActiveCoupons(tenantId, now);
+            return new CatalogListingCache.Snapshot(activeCoupons,
+                    validityHorizon(tenantId, now, activeCoupons, cacheProperties.getListing().getMaxTtl()));
+        });
+    }
+    
+    public CatalogChangesResponse getChangesSince(String tenantId, long since, int limit, String epoch) {
+        return catalogChangeLog.changesSince(tenantId, since, limit, epoch);
+    }
+    
+    public String getCatalogEpoch() {
+        return catalogChangeLog.getEpoch();
+    }
+    
+    public Coupon getCouponById(String tenantId, Long id) {
+        return couponRepository.findByIdAndTenantId(id, tenantId)
+                .orElseThrow(() -> new CouponNotFoundException("Coupon with Id " + id + " Not Found"));
+    }
+    
+    public Coupon createCoupon(String tenantId, Coupon coupon) {
+        coupon.setTenantId(tenantId);
+        if (couponRepository.existsByTenantIdAndCode(tenantId, coupon.getCode())
+                || couponCodeIndex.contains(tenantId, coupon.getCode())) {
+            throw new IllegalArgumentException("Coupon code already exists");
+        }
+        if (coupon instanceof CategoryWiseCoupon categoryWise && !categoryCatalog.contains(categoryWise.getCategory())) {
+            throw new ConstraintViolationException("Unknown category " + categoryWise.getCategory());
+        }
+        try{
+            Coupon saved = couponRepository.save(coupon);
+            couponCodeIndex.put(saved);
+            productCouponIndex.put(saved);
+            catalogChangeLog.record(tenantId, CatalogChange.Kind.CREATED, saved.getId(), convertToDTO(saved));
+            dominanceAnalyzer.schedule(tenantId);
+            return saved;
+        } catch (Exception e){
+            throw new ConstraintViolationException("Could not save to Database");
+        }
+    }
+    
+    public Coupon updateCoupon(String tenantId, Long id, Coupon couponDetails) {
+        Coupon coupon = couponRepository.findByIdAndTenantId(id, tenantId)
+            .orElseThrow(() -> new CouponNotFoundException("Coupon with Id " + id + " Not Found"));
+        boolean wasActive = coupon.isActive();
+        // Update fields
+        coupon.setName(couponDetails.getName());
+        coupon.setDescription(couponDetails.getDescription());
+        coupon.setValidFrom(couponDetails.getValidFrom());
+        coupon.setValidTo(couponDetails.getValidTo());
+        coupon.setActive(couponDetails.isActive());
+        
+        Coupon saved = couponRepository.save(coupon);
+        couponCodeIndex.put(saved);
+        CatalogChange.Kind kind = wasActive == saved.isActive() ? CatalogChange.Kind.UPDATED
+                : saved.isActive() ? CatalogChange.Kind.ACTIVATED : CatalogChange.Kind.DEACTIVATED;
+        catalogChangeLog.record(tenantId, kind, saved.getId(), convertToDTO(saved));
+        dominanceAnalyzer.schedule(tenantId);
+        return saved;
+    }
+    
+    // Matching rows are selected and locked, then updated in id batches with the filter re-checked, all in one
+    // transaction. Changes are published only once committed, so nothing keyed by the new catalog version can be
+    // derived from rows read before the commit
+    public BulkLifecycleResponse updateLifecycle(String tenantId, BulkLifecycleRequest.Operation operation,
+            BulkLifecycleRequest request) {
+        validateBulkRequest(operation, request);
+        Boolean active = switch (operation) {
+            case ACTIVATE -> true;
+            case DEACTIVATE -> false;
+            case EXTEND -> null;
+        };
+        String type = request.getType() == null ? null : request.getType().name();
+        String codePrefix = likePrefix(request.getCodePrefix());
+        List<Coupon> changed = new ArrayList<>();
+        List<Long> rejected = new ArrayList<>();
+        int updated = transactionTemplate.execute(status -> {
+            List<Long> ids = couponRepository.findBulkTargets(tenantId, type, codePrefix, request.getMinId(),
+                    request.getMaxId(), request.getWindowStart(), request.getWindowEnd(), active);
+            if (operation == BulkLifecycleRequest.Operation.EXTEND) {
+                // A single new bound can still end up on the wrong side of the row's other one
+                for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+                    rejected.addAll(couponRepository.findInvertedByExtend(tenantId,
+                            ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE)),
+                            request.getValidFrom(), request.getValidTo()));
+                }
+                if (!rejected.isEmpty()) {
+                    Set<Long> skip = new HashSet<>(rejected);
+                    ids = ids.stream().filter(id -> !skip.contains(id)).toList();
+                }
+            }
+            int rows = 0;
+            for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE));
+                rows += active != null
+                        ? couponRepository.updateActive(tenantId, batch, type, codePrefix, request.getMinId(),
+                                request.getMaxId(), request.getWindowStart(), request.getWindowEnd(), active)
+                        : couponRepository.updateValidity(tenantId, batch, type, codePrefix, request.getMinId(),
+                                request.getMaxId(), request.getWindowStart(), request.getWindowEnd(), null,
+                                request.getValidFrom(), request.getValidTo());
+                changed.addAll(couponRepository.findAllById(batch));
+            }
+            return rows;
+        });
+        if (changed.isEmpty()) {
+            return new BulkLifecycleResponse(operation, 0, catalogVersion.current(tenantId), rejected);
+        }
+        
+        couponCodeIndex.putAll(changed);
+        List<CouponDTO> dtos = new ArrayList<>(changed.size());
+        for (Coupon coupon : changed) {
+            dtos.add(convertToDTO(coupon));
+        }
+        CatalogChange.Kind kind = active == null ? CatalogChange.Kind.UPDATED
+                : active ? CatalogChange.Kind.ACTIVATED : CatalogChange.Kind.DEACTIVATED;
+        long version = catalogChangeLog.recordAll(tenantId, kind, dtos);
+        dominanceAnalyzer.schedule(tenantId);
+        return new BulkLifecycleResponse(operation, updated, version, rejected);
+    }
+    
+    private static void validateBulkRequest(BulkLifecycleRequest.Operation operation, BulkLifecycleRequest request) {
+        if (request.getType() == null && (request.getCodePrefix() == null || request.getCodePrefix().isBlank())
+                && request.getMinId() == null && request.getMaxId() == null
+                && request.getWindowStart() == null && request.getWindowEnd() == null) {
+            throw new ConstraintViolationException("Bulk updates need at least one filter criterion");
+        }
+        if (operation == BulkLifecycleRequest.Operation.EXTEND) {
+            if (request.getValidFrom() == null && request.getValidTo() == null) {
+                throw new ConstraintViolationException("Extend needs validFrom or validTo");
+            }
+            if (request.getValidFrom() != null && request.getValidTo() != null
+                    && request.getValidFrom().isAfter(request.getValidTo())) {
+                throw new ConstraintViolationException("validFrom must not be after validTo");
+            }
+        }
+    }
+    
+    // Codes are matched ignoring case, with LIKE wildcards in the prefix taken literally
+    private static String likePrefix(String codePrefix) {
+        if (codePrefix == null || codePrefix.isBlank()) {
+            return null;
+        }
+        return codePrefix.trim().toUpperCase().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+    
+    public void deleteCoupon(String tenantId, Long id) {
+        couponRepository.findByIdAndTenantId(id, tenantId)
+            .orElseThrow(() -> new CouponNotFoundException("No Coupon with id " + id + " found to delete"));
+        couponRepository.deleteById(id);
+        couponCodeIndex.remove(tenantId, id);
+        productCouponIndex.remove(tenantId, id);
+        catalogChangeLog.record(tenantId, CatalogChange.Kind.DELETED, id, null);
+        dominanceAnalyzer.schedule(tenantId);
+    }
+    
+    public List<ApplicableCouponResponse> getApplicableCoupons(String tenantId, Cart cart) {
+        if (!catalogVersion.isKnown(tenantId)) {
+            return List.of();
+        }
+        long version = catalogVersion.current(tenantId);
+        return applicabilityCache.get(tenantId, cart, version,
+                () -> evaluateApplicableCoupons(tenantId, version, cart, ParallelEvaluator.NO_DEADLINE, Set.of()).entry());
+    }
+    
+    // Best effort within the deadline: only complete results are cached, and a cached one is used
+    // only if already computed, never by waiting on another request's evaluation. With bestOnly,
+    // coupons the dominance analysis found redundant are neither evaluated nor returned
+    public ApplicableCouponsResult<ApplicableCouponResponse> getApplicableCoupons(String tenantId, Cart cart,
+            long deadlineNanos, boolean bestOnly) {
+        if (!catalogVersion.isKnown(tenantId)) {
+            return new ApplicableCouponsResult<>(List.of(), false, 0);
+        }
+        long version = catalogVersion.current(tenantId);
+        Set<Long> dominated = bestOnly ? dominanceAnalyzer.dominated(tenantId) : Set.of();
+        Optional<List<ApplicableCouponResponse>> cached = applicabilityCache.peek(tenantId, cart, version);
+        if (cached.isPresent()) {
+            List<ApplicableCouponResponse> responses = cached.get().stream()
+                    .filter(response -> !dominated.contains(response.getCoupon().getId()))
+                    .toList();
+            return new ApplicableCouponsResult<>(highestSavingsFirst(responses), false, 0);
+        }
+        BoundedEvaluation evaluation = evaluateApplicableCoupons(tenantId, version, cart, deadlineNanos, dominated);
+        if (evaluation.unevaluated() == 0 && dominated.isEmpty()) {
+            applicabilityCache.offer(tenantId, cart, version, evaluation.entry());
+        }
+        return new ApplicableCouponsResult<>(highestSavingsFirst(evaluation.entry().responses()),
+                evaluation.unevaluated() > 0, evaluation.unevaluated());
+    }
+    
+    public DominanceReport getRedundancyReport(String tenantId) {
+        return dominanceAnalyzer.report(tenantId);
+    }
+    
+    private static List<ApplicableCouponResponse> highestSavingsFirst(List<ApplicableCouponResponse> responses) {
+        return responses.stream()
+                .sorted(Comparator.comparing((ApplicableCouponResponse r) -> r.getSavings() == null ? 0 : r.getSavings())
+                        .reversed())
+                .toList();
+    }
+    
+    private record BoundedEvaluation(ApplicabilityCache.Entry entry, int unevaluated) {
+    }
+    
+    private BoundedEvaluation evaluateApplicableCoupons(String tenantId, long version, Cart cart, long deadlineNanos,
+            Set<Long> skipped) {
+        LocalDateTime now = LocalDateTime.now();
+        CatalogFetchEvent fetchEvent = new CatalogFetchEvent();
+        fetchEvent.begin();
+        List<Coupon> activeCoupons = findCandidateCoupons(tenantId, cart, now);
+        fetchEvent.end();
+        if (fetchEvent.shouldCommit()) {
+            fetchEvent.setCouponCount(activeCoupons.size());
+            fetchEvent.commit();
+        }
+        LocalDateTime validUntil = validityHorizon(tenantId, now, activeCoupons,
+                cacheProperties.getApplicability().getMaxTtl());
+        CartSnapshot snapshot = CouponRuleMapper.toSnapshot(cart);
+        
+        List<Coupon> candidates = activeCoupons;
+        if (!skipped.isEmpty()) {
+            candidates = activeCoupons.stream().filter(coupon -> !skipped.contains(coupon.getId())).toList();
+        }
+        if (deadlineNanos != ParallelEvaluator.NO_DEADLINE) {
+            // Spend a limited budget on the most valuable coupons first
+            candidates = CouponPriority.highestSavingsFirst(candidates, snapshot, deadlineNanos);
+        }
+        ParallelEvaluator.Results<ApplicableCouponResponse> evaluated = parallelEvaluator.evaluate(candidates,
+                snapshot.lines().size(), coupon -> checkCouponApplicability(couponRuleCache.rule(tenantId, version, coupon),
+                        coupon, snapshot),
+                ApplicableCouponResponse::getIsCouponApplicable, deadlineNanos);
+        List<ApplicableCouponResponse> applicableCoupons = new ArrayList<>(evaluated.results());
+        applicableCoupons.sort(Comparator.comparing(response -> response.getCoupon().getId()));
+        
+        return new BoundedEvaluation(new ApplicabilityCache.Entry(List.copyOf(applicableCoupons), validUntil),
+                evaluated.unevaluated());
+    }
+    
+    // Active coupons that could apply to the cart: every coupon not keyed by product, plus
+    // the product-keyed ones the off-heap index links to the cart's products
+    private List<Coupon> findCandidateCoupons(String tenantId, Cart cart, LocalDateTime now) {
+        List<Coupon> candidates = new ArrayList<>(couponRepository.findActiveUnkeyedCoupons(tenantId, now));
+        List<String> productIds = cart.getItems() == null ? List.of()
+                : cart.getItems().stream().map(CartItem::getProductId).toList();
+        List<Long> keyed = new ArrayList<>(productCouponIndex.candidates(tenantId, productIds));
+        for (int from = 0; from < keyed.size(); from += ID_BATCH_SIZE) {
+            List<Long> batch = keyed.subList(from, Math.min(keyed.size(), from + ID_BATCH_SIZE));
+            candidates.addAll(couponRepository.findActiveCouponsByIdIn(tenantId, batch, now));
+        }
+        candidates.sort(Comparator.comparing(Coupon::getId));
+        return candidates;
+    }
+    
+    // Anything derived from the active set stays valid until the next coupon starts or stops being valid
+    private LocalDateTime validityHorizon(String tenantId, LocalDateTime now, List<Coupon> activeCoupons,
+            Duration maxTtl) {
+        LocalDateTime validUntil = now.plus(maxTtl);
+        LocalDateTime nextValidFrom = couponRepository.findNextValidFrom(tenantId, now);
+        if (nextValidFrom != null && nextValidFrom.isBefore(validUntil)) {
+            validUntil = nextValidFrom;
+        }
+        for (Coupon coupon : activeCoupons) {
+            if (coupon.getValidTo() != null && coupon.getValidTo().isBefore(validUntil)) {
+                validUntil = coupon.getValidTo();
+            }
+        }
+        return validUntil;
+    }
+    
+    public Cart applyCoupon(String tenantId, Long couponId, Cart cart) {
+        return cartOrThrow(tryApplyCoupon(tenantId, couponId, cart));
+    }
+    
+    public Cart applyCouponByCode(String tenantId, String code, Cart cart) {
+        return cartOrThrow(tryApplyCouponByCode(tenantId, code, cart));
+    }
+    
+    public ApplyOutcome tryApplyCoupon(String tenantId, Long couponId, Cart cart) {
+        long version = catalogVersion.current(tenantId);
+        Optional<Coupon> coupon = couponRepository.findByIdAndTenantId(couponId, tenantId);
+        if (coupon.isEmpty()) {
+            return new ApplyOutcome.NotFound("Coupon with Id " + couponId + " Not Found");
+        }
+        return tryApplyCoupon(couponRuleCache.rule(tenantId, version, coupon.get()), coupon.get(), cart, false);
+    }
+    
+    public ApplyOutcome tryApplyCouponByCode(String tenantId, String code, Cart cart) {
+        long version = catalogVersion.current(tenantId);
+        Optional<Coupon> coupon = couponCodeIndex.findId(tenantId, code)
+                .flatMap(id -> couponRepository.findByIdAndTenantId(id, tenantId));
+        if (coupon.isEmpty()) {
+            return new ApplyOutcome.NotFound("Coupon with code " + code + " Not Found");
+        }
+        return tryApplyCoupon(couponRuleCache.rule(tenantId, version, coupon.get()), coupon.get(), cart, true);
+    }
+    
+    // Rejections are the common case when users try codes, so they are returned rather than thrown
+    private ApplyOutcome tryApplyCoupon(CouponRule rule, Coupon coupon, Cart cart, boolean checkValidity) {
+        if (checkValidity && !rule.isValidAt(LocalDateTime.now())) {
+            return new ApplyOutcome.NotApplicable(coupon.getId(), coupon.getCode(), "Coupon is not active");
+        }
+        CartSnapshot snapshot = CouponRuleMapper.toSnapshot(cart);
+        Evaluation evaluation = evaluate(coupon, rule, snapshot);
+        if (!evaluation.applicable()) {
+            return new ApplyOutcome.NotApplicable(coupon.getId(), coupon.getCode(), evaluation.message());
+        }
+        
+        Cart updatedCart = applyCouponToCart(coupon, rule, cart, snapshot);
+        redemptionAuditLog.record(RedemptionEvent.of(coupon, cart, updatedCart));
+        return new ApplyOutcome.Applied(coupon.getId(), coupon.getCode(), updatedCart,
+                snapshot.totalAmount() - updatedCart.getTotalAmount());
+    }
+    
+    private static Cart cartOrThrow(ApplyOutcome outcome) {
+        if (outcome instanceof ApplyOutcome.Applied applied) {
+            return applied.cart();
+        } else if (outcome instanceof ApplyOutcome.NotApplicable notApplicable) {
+            throw new CouponNotApplicable("Coupon not applicable: " + notApplicable.reason());
+        }
+        throw new CouponNotFoundException(((ApplyOutcome.NotFound) outcome).message());
+    }
+    
+    private ApplicableCouponResponse checkCouponApplicability(CouponRule rule, Coupon coupon, CartSnapshot cart) {
+        ApplicableCouponResponse response = new ApplicableCouponResponse();
+        response.setCoupon(convertToDTO(coupon));
+        Evaluation evaluation = evaluate(coupon, rule, cart);
+        if (evaluation.applicable()) {
+            // A rule that evaluates but cannot be applied is not applicable, as in evaluate()
+            try {
+                response.setSavings(rule.apply(cart).discount(cart));
+            } catch (Exception e) {
+                evaluation = Evaluation.notApplicable("Error applying coupon: " + e.getMessage());
+            }
+        }
+        response.setMessage(evaluation.message());
+        response.setIsCouponApplicable(evaluation.applicable());
+        return response;
+    }
+    
+    private Evaluation evaluate(Coupon coupon, CouponRule rule, CartSnapshot cart) {
+        CouponCheckEvent checkEvent = new CouponCheckEvent();
+        checkEvent.begin();
+        Evaluation evaluation;
+        try {
+            evaluation = rule.evaluate(cart);
+        } catch (Exception e) {
+            evaluation = Evaluation.notApplicable("Error checking applicability: " + e.getMessage());
+        }
+        checkEvent.end();
+        if (checkEvent.shouldCommit()) {
+            checkEvent.setCouponId(idOf(coupon));
+            checkEvent.setCouponType(typeOf(coupon));
+            checkEvent.setCartLines(cart.lines().size());
+            checkEvent.setApplicable(evaluation.applicable());
+            checkEvent.commit();
+        }
+        return evaluation;
+    }
+    
+    private Cart applyCouponToCart(Coupon coupon, CouponRule rule, Cart cart, CartSnapshot snapshot) {
+        CouponApplyEvent applyEvent = new CouponApplyEvent();
+        applyEvent.begin();
+        Application application = rule.apply(snapshot);
+        Cart updatedCart = CouponRuleMapper.toCart(cart, application);
+        applyEvent.end();
+        if (applyEvent.shouldCommit()) {
+            applyEvent.setCouponId(idOf(coupon));
+            applyEvent.setCouponType(typeOf(coupon));
+            applyEvent.setCartLines(snapshot.lines().size());
+            applyEvent.commit();
+        }
+        return updatedCart;
+    }
+    
+    private static long idOf(Coupon coupon) {
+        return coupon.getId() == null ? -1 : coupon.getId();
+    }
+    
+    private static String typeOf(Coupon coupon) {
+        return coupon.getType() != null ? coupon.getType().name() : coupon.getCouponType();
+    }
+
+    public Double calculateTotalAmount(List<CartItem> items) {
+        return items.stream()
+            .mapToDouble(item -> item.getPrice() * item.getQuantity())
+            .sum();
+    }
+    
+    private CouponDTO convertToDTO(Coupon coupon) {
+        DtoConversionEvent conversionEvent = new DtoConversionEvent();
+        conversionEvent.begin();
+        // Conversion logic from entity to DTO
+        CouponDTO couponDTO = new CouponDTO();
+        couponDTO.setId(coupon.getId());
+        couponDTO.setName(coupon.getName());
+        couponDTO.setCode(coupon.getCode());
+        couponDTO.setType(coupon.getType());
+        couponDTO.setDescription(coupon.getDescription());
+        couponDTO.setValidFrom(coupon.getValidFrom());
+        couponDTO.setValidTo(coupon.getValidTo());
+        couponDTO.setActive(coupon.isActive());
+        if (coupon instanceof CartWiseCoupon cartWise) {
+            couponDTO.setMinCartAmount(cartWise.getMinCartAmount());
+            couponDTO.setDiscountPercentage(cartWise.getDiscountPercentage());
+            couponDTO.setFixedDiscount(cartWise.getFixedDiscount());
+        } else if (coupon instanceof ProductWiseCoupon productWise) {
+            couponDTO.setApplicableProducts(productWise.getApplicableProducts());
+            couponDTO.setDiscountPercentage(productWise.getDiscountPercentage());
+            couponDTO.setFixedDiscount(productWise.getFixedDiscount());
+        } else if (coupon instanceof CategoryWiseCoupon categoryWise) {
+            couponDTO.setCategory(categoryWise.getCategory());
+            couponDTO.setDiscountPercentage(categoryWise.getDiscountPercentage());
+            couponDTO.setFixedDiscount(categoryWise.getFixedDiscount());
+        } else if (coupon instanceof BxGyCoupon bxgy) {
+            couponDTO.setBuyProducts(bxgy.getBuyProducts());
+            couponDTO.setBuyQuantity(bxgy.getBuyQuantity());
+            couponDTO.setGetProducts(bxgy.getGetProducts());
+            couponDTO.setGetQuantity(bxgy.getGetQuantity());
+            couponDTO.setRepetitionLimit(bxgy.getRepetitionLimit());
+        }
+        conversionEvent.end();
+        if (conversionEvent.shouldCommit()) {
+            conversionEvent.setCouponId(idOf(coupon));
+            conversionEvent.setCouponType(typeOf(coupon));
+            conversionEvent.commit();
+        }
+        return couponDTO;
+    }
+
+    public List<Coupon> getActiveCoupons(String tenantId){
+        List<Coupon> activeCoupons = couponRepository.findActiveCoupons(tenantId, LocalDateTime.now());
+
+        return activeCoupons;
+    }
+}
\ No newline at end of file
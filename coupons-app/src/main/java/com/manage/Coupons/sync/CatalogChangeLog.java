@@ -0,0 +1,154 @@
+package com.manage.Coupons.sync;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.manage.Coupons.config.SyncProperties;
+import com.manage.Coupons.dto.CatalogChange;
+import com.manage.Coupons.dto.CatalogChangesResponse;
+import com.manage.Coupons.dto.CouponDTO;
+import com.manage.Coupons.service.CatalogVersion;
+
+/**
+ * Bounded, in-memory log of catalog writes, one entry per changed coupon at the catalog
+ * version that published it (bulk writes share one). Mirrors use it to pull only what
+ * changed since the version they hold.
+ *
+ * Each tenant has its own log and version sequence. The epoch identifies this log
+ * instance: versions restart when the service does, so a mirror presenting a different
+ * epoch is told to resync.
+ */
+@Component
+public class CatalogChangeLog {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private SyncProperties syncProperties;
+
+    // Each tenant's log has its own lock, so one tenant's write burst never blocks another's readers
+    private final ConcurrentMap<String, TenantLog> logs = new ConcurrentHashMap<>();
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long record(String tenantId, CatalogChange.Kind kind, Long couponId, CouponDTO coupon) {
+        TenantLog log = log(tenantId);
+        synchronized (log) {
+            long version = catalogVersion.bump(tenantId);
+            log.changes.add(new CatalogChange(version, couponId, kind, kind == CatalogChange.Kind.DELETED ? null : coupon));
+            compact(log);
+            return version;
+        }
+    }
+
+    // A bulk write publishes all its changes at one version, so caches keyed by it refresh once
+    public long recordAll(String tenantId, CatalogChange.Kind kind, List<CouponDTO> coupons) {
+        TenantLog log = log(tenantId);
+        synchronized (log) {
+            long version = catalogVersion.bump(tenantId);
+            for (CouponDTO coupon : coupons) {
+                log.changes.add(new CatalogChange(version, coupon.getId(), kind, coupon));
+            }
+            compact(log);
+            return version;
+        }
+    }
+
+    public CatalogChangesResponse changesSince(String tenantId, long since, int limit, String clientEpoch) {
+        // Reads never create a log; a tenant without one has no changes to answer from
+        TenantLog log = logs.get(tenantId);
+        if (log == null) {
+            log = new TenantLog(catalogVersion.current(tenantId));
+        }
+        synchronized (log) {
+            CatalogChangesResponse response = new CatalogChangesResponse();
+            response.setEpoch(epoch);
+            response.setSince(since);
+            long current = catalogVersion.current(tenantId);
+            response.setCurrentVersion(current);
+
+            boolean foreignEpoch = clientEpoch != null && !clientEpoch.equals(epoch);
+            if (foreignEpoch || since < log.compactedThrough || since > current) {
+                response.setResyncRequired(true);
+                response.setNextSince(current);
+                return response;
+            }
+
+            int pageSize = Math.max(1, Math.min(limit, syncProperties.getMaxPageSize()));
+            List<CatalogChange> changes = log.changes;
+            int from = firstIndexAfter(changes, since);
+            // Pages end on a version boundary, since nextSince resumes after a whole version
+            int to = from < changes.size() ? firstIndexAfter(changes,
+                    changes.get(Math.min(changes.size(), from + pageSize) - 1).getVersion()) : from;
+
+            // Within a page only the latest change per coupon matters to a mirror
+            Map<Long, CatalogChange> latest = new LinkedHashMap<>();
+            for (int i = from; i < to; i++) {
+                CatalogChange change = changes.get(i);
+                latest.remove(change.getCouponId());
+                latest.put(change.getCouponId(), change);
+            }
+            response.setChanges(new ArrayList<>(latest.values()));
+            response.setNextSince(to > from ? changes.get(to - 1).getVersion() : since);
+            response.setHasMore(to < changes.size());
+            return response;
+        }
+    }
+
+    boolean hasLog(String tenantId) {
+        return logs.containsKey(tenantId);
+    }
+
+    private void compact(TenantLog log) {
+        int retained = syncProperties.getRetainedChanges();
+        if (log.changes.size() > retained + retained / 4) {
+            // Drop whole versions only, so a compacted version is never half answerable
+            long through = log.changes.get(log.changes.size() - retained - 1).getVersion();
+            List<CatalogChange> dropped = log.changes.subList(0, firstIndexAfter(log.changes, through));
+            log.compactedThrough = through;
+            dropped.clear();
+        }
+    }
+
+    // Every write goes through the log, so it covers all versions after the one current when it is created
+    private TenantLog log(String tenantId) {
+        return logs.computeIfAbsent(tenantId, t -> new TenantLog(catalogVersion.current(t)));
+    }
+
+    private static int firstIndexAfter(List<CatalogChange> changes, long version) {
+        int low = 0;
+        int high = changes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (changes.get(mid).getVersion() <= version) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class TenantLog {
+        private final List<CatalogChange> changes = new ArrayList<>();
+        // Highest version no longer answerable from the log
+        private long compactedThrough;
+
+        TenantLog(long baseline) {
+            this.compactedThrough = baseline;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.manage.Coupons.tenant;
+
+import java.util.regex.Pattern;
+
+import com.manage.Coupons.exception.ConstraintViolationException;
+
+/**
+ * Tenant identifiers. Every coupon belongs to exactly one tenant and every request is
+ * served from that tenant's partition of the catalog, indexes and caches; requests
+ * without a tenant header use the default tenant.
+ */
+public final class Tenants {
+
+    public static final String HEADER = "X-Tenant-Id";
+    public static final String DEFAULT = "default";
+
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private Tenants() {
+    }
+
+    public static String resolve(String tenantId) {
+        if (tenantId == null || tenantId.isBlank()) {
+            return DEFAULT;
+        }
+        if (!VALID.matcher(tenantId).matches()) {
+            throw new ConstraintViolationException("Invalid tenant id " + tenantId);
+        }
+        return tenantId;
+    }
+}
@@ -0,0 +1,136 @@
+package com.manage.Coupons.analysis;
+
+import com.manage.Coupons.dto.DominanceReport;
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.CouponType;
+import com.manage.Coupons.model.ProductWiseCoupon;
+import com.manage.Coupons.tenant.Tenants;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponDominanceAnalyzerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2026, 12, 31, 0, 0);
+
+    private <T extends Coupon> T window(T coupon, long id) {
+        coupon.setId(id);
+        coupon.setCode("C" + id);
+        coupon.setValidFrom(FROM);
+        coupon.setValidTo(TO);
+        return coupon;
+    }
+
+    private CartWiseCoupon cartWise(long id, double minCartAmount, Double percentage, Double fixed) {
+        CartWiseCoupon coupon = window(new CartWiseCoupon(), id);
+        coupon.setMinCartAmount(minCartAmount);
+        coupon.setDiscountPercentage(percentage);
+        coupon.setFixedDiscount(fixed);
+        return coupon;
+    }
+
+    private ProductWiseCoupon productWise(long id, double percentage, String... products) {
+        ProductWiseCoupon coupon = window(new ProductWiseCoupon(), id);
+        coupon.setApplicableProducts(List.of(products));
+        coupon.setDiscountPercentage(percentage);
+        return coupon;
+    }
+
+    private BxGyCoupon bxgy(long id, int buy, int get, int repetitions, String getProduct) {
+        BxGyCoupon coupon = window(new BxGyCoupon(), id);
+        coupon.setBuyProducts(List.of("SHIRT"));
+        coupon.setBuyQuantity(buy);
+        coupon.setGetProducts(List.of(getProduct));
+        coupon.setGetQuantity(get);
+        coupon.setRepetitionLimit(repetitions);
+        return coupon;
+    }
+
+    private Stream<CouponTerms> terms(List<Coupon> coupons) {
+        return coupons.stream().map(CouponTerms::of);
+    }
+
+    private Map<Long, Long> dominators(DominanceReport report) {
+        Map<Long, Long> dominators = new HashMap<>();
+        for (DominanceReport.DominatedCoupon dominated : report.dominated()) {
+            dominators.put(dominated.couponId(), dominated.dominatedBy());
+        }
+        return dominators;
+    }
+
+    @Test
+    void testCartWiseLadderKeepsOnlyUsefulTiers() {
+        List<Coupon> coupons = List.of(
+                cartWise(1L, 100, 10.0, null),
+                cartWise(2L, 100, 15.0, null),
+                cartWise(3L, 200, 12.0, null),
+                cartWise(4L, 300, 20.0, null),
+                // Fixed discounts take precedence, so this is compared with fixed ones only
+                cartWise(5L, 300, 5.0, 50.0),
+                cartWise(6L, 400, null, 40.0));
+
+        CouponDominanceAnalyzer.Analysis analysis = CouponDominanceAnalyzer.analyze(Tenants.DEFAULT, 7, terms(coupons));
+
+        assertEquals(Map.of(1L, 2L, 3L, 2L, 6L, 5L), dominators(analysis.report()));
+        assertEquals(Set.of(1L, 3L, 6L), analysis.dominatedIds());
+        assertEquals(7, analysis.report().catalogVersion());
+        assertEquals(6, analysis.report().analyzedCoupons());
+        assertEquals(1, analysis.report().overlaps().size());
+        assertEquals(List.of(2L, 4L), analysis.report().overlaps().get(0).couponIds());
+    }
+
+    @Test
+    void testOnlyIdenticalWindowsAndProductSetsAreCompared() {
+        ProductWiseCoupon laterWindow = productWise(4L, 50, "PHONE");
+        laterWindow.setValidTo(TO.plusDays(1));
+        List<Coupon> coupons = List.of(
+                productWise(1L, 10, "PHONE", "CASE"),
+                productWise(2L, 20, "CASE", "PHONE"),
+                productWise(3L, 30, "PHONE"),
+                laterWindow);
+
+        DominanceReport report = CouponDominanceAnalyzer.analyze(Tenants.DEFAULT, 1, terms(coupons)).report();
+
+        assertEquals(Map.of(1L, 2L), dominators(report));
+        assertEquals(4, report.analyzedCoupons());
+        assertTrue(report.overlaps().isEmpty());
+    }
+
+    @Test
+    void testBxGyDominanceNeedsDisjointSets() {
+        List<Coupon> coupons = List.of(
+                bxgy(1L, 2, 1, 1, "SOCKS"),
+                bxgy(2L, 2, 1, 3, "SOCKS"),
+                bxgy(3L, 3, 1, 5, "SOCKS"),
+                bxgy(4L, 3, 1, 2, "SOCKS"),
+                // Overlapping buy and get sets are never compared
+                bxgy(5L, 1, 1, 1, "SHIRT"),
+                bxgy(6L, 2, 1, 1, "SHIRT"));
+
+        DominanceReport report = CouponDominanceAnalyzer.analyze(Tenants.DEFAULT, 1, terms(coupons)).report();
+
+        assertEquals(Map.of(1L, 2L, 4L, 2L), dominators(report));
+        assertEquals(CouponType.BXGY, report.overlaps().get(0).type());
+        assertEquals(List.of("SHIRT"), report.overlaps().get(0).products());
+        assertEquals(List.of(2L, 3L), report.overlaps().get(0).couponIds());
+    }
+
+    @Test
+    void testIdenticalCouponsKeepTheOldest() {
+        List<Coupon> coupons = List.of(
+                bxgy(9L, 2, 1, 1, "SOCKS"),
+                bxgy(8L, 2, 1, 1, "SOCKS"),
+                cartWise(7L, 100, 10.0, null),
+                cartWise(6L, 100, 10.0, null));
+
+        assertEquals(Map.of(9L, 8L, 7L, 6L), dominators(CouponDominanceAnalyzer.analyze(Tenants.DEFAULT, 1, terms(coupons)).report()));
+    }
+}
@@ -0,0 +1,164 @@
+package com.manage.Coupons.audit;
+
+import com.manage.Coupons.config.AuditProperties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.*;
+
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedemptionAuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Spy
+    private AuditProperties auditProperties = new AuditProperties();
+
+    @InjectMocks
+    private RedemptionAuditLog redemptionAuditLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        auditProperties.setDirectory(directory.toString());
+        auditProperties.setFlushInterval(Duration.ofMillis(5));
+        auditProperties.setBufferCapacity(1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        redemptionAuditLog.stop();
+    }
+
+    private RedemptionEvent event(long couponId, String code, double before, double after) {
+        return new RedemptionEvent(System.currentTimeMillis(), couponId, code, "CART_WISE", "cart-1", before, after);
+    }
+
+    @Test
+    void testRingBufferRejectsWhenFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        assertTrue(buffer.offer(1));
+        assertTrue(buffer.offer(2));
+        assertFalse(buffer.offer(3));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained::add, 10));
+        assertEquals(List.of(1, 2), drained);
+        assertTrue(buffer.offer(3));
+    }
+
+    @Test
+    void testEventsAreWrittenAndReplayed() {
+        redemptionAuditLog.start();
+        redemptionAuditLog.record(event(1L, "CART10", 200, 180));
+        redemptionAuditLog.record(event(1L, "CART10", 100, 90));
+        redemptionAuditLog.record(event(2L, "café \"quoted\"", 50, 45));
+        redemptionAuditLog.stop();
+
+        RedemptionAuditReader reader = new RedemptionAuditReader(directory);
+        List<RedemptionEvent> events = new ArrayList<>();
+        reader.replay(events::add);
+
+        assertEquals(3, events.size());
+        assertEquals("café \"quoted\"", events.get(2).couponCode());
+
+        Map<Long, RedemptionAuditReader.CouponRedemptionSummary> summary = reader.summarizeByCoupon();
+        assertEquals(2, summary.get(1L).redemptions());
+        assertEquals(30.0, summary.get(1L).totalDiscount(), 1e-9);
+    }
+
+    @Test
+    void testTornTrailingLineIsSkipped() throws Exception {
+        String complete = "{\"timestamp\":1,\"couponId\":1,\"couponCode\":\"A\",\"couponType\":\"CART_WISE\","
+                + "\"cartId\":\"c\",\"totalBefore\":100.0,\"totalAfter\":90.0}\n";
+        Files.writeString(directory.resolve(RedemptionAuditLog.SEGMENT_PREFIX + "1-0" + RedemptionAuditLog.SEGMENT_SUFFIX),
+                complete + complete.substring(0, 40));
+        Files.writeString(directory.resolve(RedemptionAuditLog.SEGMENT_PREFIX + "2-0" + RedemptionAuditLog.SEGMENT_SUFFIX),
+                complete + complete.substring(0, 20));
+
+        List<RedemptionEvent> events = new ArrayList<>();
+        new RedemptionAuditReader(directory).replay(events::add);
+
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void testCorruptLineBeforeTheEndFailsTheRead() throws Exception {
+        Files.writeString(directory.resolve(RedemptionAuditLog.SEGMENT_PREFIX + "1-0" + RedemptionAuditLog.SEGMENT_SUFFIX),
+                "not json\n{}\n");
+
+        assertThrows(UncheckedIOException.class, () -> new RedemptionAuditReader(directory).replay(e -> { }));
+    }
+
+    @Test
+    void testSegmentsRotate() {
+        auditProperties.setMaxSegmentBytes(256);
+        auditProperties.setBatchSize(1);
+        redemptionAuditLog.start();
+        for (int i = 0; i < 10; i++) {
+            redemptionAuditLog.record(event(i, "CODE" + i, 100, 90));
+        }
+        redemptionAuditLog.stop();
+
+        RedemptionAuditReader reader = new RedemptionAuditReader(directory);
+        List<RedemptionEvent> events = new ArrayList<>();
+        reader.replay(events::add);
+
+        assertTrue(reader.segments().size() > 1);
+        assertEquals(10, events.size());
+        assertEquals(0L, events.get(0).couponId());
+        assertEquals(9L, events.get(9).couponId());
+    }
+
+    @Test
+    void testWriterSurvivesWriteFailures() throws Exception {
+        Path blocked = directory.resolve("blocked");
+        Files.writeString(blocked, "not a directory");
+        auditProperties.setDirectory(blocked.toString());
+        auditProperties.setMaxRetryBackoff(Duration.ofMillis(20));
+        redemptionAuditLog.start();
+
+        redemptionAuditLog.record(event(1L, "LOST", 100, 90));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (redemptionAuditLog.getFailedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, redemptionAuditLog.getFailedCount());
+
+        Files.delete(blocked);
+        redemptionAuditLog.record(event(2L, "KEPT", 100, 90));
+        redemptionAuditLog.stop();
+
+        List<RedemptionEvent> events = new ArrayList<>();
+        new RedemptionAuditReader(blocked).replay(events::add);
+        assertEquals(1, events.size());
+        assertEquals("KEPT", events.get(0).couponCode());
+        assertEquals(1, redemptionAuditLog.getWrittenCount());
+    }
+
+    @Test
+    void testNonFiniteTotalsAreWrittenAsNull() {
+        ByteBuffer out = ByteBuffer.allocate(512);
+        RedemptionEvent event = new RedemptionEvent(1L, 1L, "NAN", "CART_WISE", "cart-1", Double.NaN,
+                Double.POSITIVE_INFINITY);
+
+        NdjsonEncoder.encode(event, out);
+
+        String line = new String(out.array(), 0, out.position(), StandardCharsets.UTF_8);
+        assertTrue(line.contains("\"totalBefore\":null,\"totalAfter\":null}"), line);
+    }
+}
@@ -0,0 +1,225 @@
+package com.manage.Coupons.cache;
+
+import com.manage.Coupons.config.CacheProperties;
+import com.manage.Coupons.dto.ApplicableCouponResponse;
+import com.manage.Coupons.dto.CouponDTO;
+import com.manage.Coupons.model.Cart;
+import com.manage.Coupons.model.CartItem;
+import com.manage.Coupons.service.CatalogVersion;
+import com.manage.Coupons.tenant.Tenants;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApplicabilityCacheTest {
+
+    @Spy
+    private CacheProperties cacheProperties = new CacheProperties();
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @InjectMocks
+    private ApplicabilityCache applicabilityCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        for (String tenantId : List.of(Tenants.DEFAULT, "acme", "globex")) {
+            catalogVersion.register(tenantId);
+        }
+    }
+
+    private Cart createCart(double totalAmount, List<CartItem> items) {
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID().toString());
+        cart.setTotalAmount(totalAmount);
+        cart.setItems(items);
+        return cart;
+    }
+
+    private CartItem createCartItem(String productId, double price, int quantity) {
+        CartItem item = new CartItem();
+        item.setProductId(productId);
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private ApplicabilityCache.Entry entry(LocalDateTime validUntil) {
+        return new ApplicabilityCache.Entry(List.of(new ApplicableCouponResponse()), validUntil);
+    }
+
+    @Test
+    void testFingerprintIgnoresLineOrderAndCartId() {
+        Cart first = createCart(250, List.of(createCartItem("P1", 100, 2), createCartItem("P2", 50, 1)));
+        Cart second = createCart(250, List.of(createCartItem("P2", 50, 1), createCartItem("P1", 100, 2)));
+        Cart different = createCart(250, List.of(createCartItem("P1", 100, 1), createCartItem("P2", 50, 3)));
+
+        assertEquals(CartFingerprint.of(first), CartFingerprint.of(second));
+        assertNotEquals(CartFingerprint.of(first), CartFingerprint.of(different));
+    }
+
+    @Test
+    void testHitForIdenticalCart() {
+        AtomicInteger computations = new AtomicInteger();
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+        applicabilityCache.get(Tenants.DEFAULT, createCart(100, List.of(createCartItem("P1", 100, 1))), 1,
+                () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.get(Tenants.DEFAULT, createCart(100, List.of(createCartItem("P1", 100, 1))), 1,
+                () -> { computations.incrementAndGet(); return entry(later); });
+
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void testCatalogVersionChangeInvalidates() {
+        AtomicInteger computations = new AtomicInteger();
+        Cart cart = createCart(100, List.of(createCartItem("P1", 100, 1)));
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+        applicabilityCache.get(Tenants.DEFAULT, cart, 1, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.get(Tenants.DEFAULT, cart, 2, () -> { computations.incrementAndGet(); return entry(later); });
+
+        assertEquals(2, computations.get());
+        assertEquals(1, applicabilityCache.size(Tenants.DEFAULT));
+    }
+
+    @Test
+    void testTenantsAreCachedAndInvalidatedIndependently() {
+        AtomicInteger computations = new AtomicInteger();
+        Cart cart = createCart(100, List.of(createCartItem("P1", 100, 1)));
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+        applicabilityCache.get("acme", cart, 1, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.get("globex", cart, 1, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.get("globex", cart, 7, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.get("acme", cart, 1, () -> { computations.incrementAndGet(); return entry(later); });
+
+        assertEquals(3, computations.get());
+        assertEquals(1, applicabilityCache.size("acme"));
+    }
+
+    @Test
+    void testExpiredEntryIsRecomputed() {
+        AtomicInteger computations = new AtomicInteger();
+        Cart cart = createCart(100, List.of(createCartItem("P1", 100, 1)));
+        LocalDateTime past = LocalDateTime.now().minusSeconds(1);
+
+        applicabilityCache.get(Tenants.DEFAULT, cart, 1, () -> { computations.incrementAndGet(); return entry(past); });
+        applicabilityCache.get(Tenants.DEFAULT, cart, 1, () -> { computations.incrementAndGet(); return entry(past); });
+
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<ApplicableCouponResponse>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> applicabilityCache.get(Tenants.DEFAULT, 
+                        createCart(100, List.of(createCartItem("P1", 100, 1))), 1, () -> {
+                            computations.incrementAndGet();
+                            try {
+                                release.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return entry(later);
+                        })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<ApplicableCouponResponse>> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void testPeekSeesOnlyOfferedOrFinishedResults() {
+        Cart cart = createCart(200, List.of(createCartItem("P1", 100, 2)));
+        assertTrue(applicabilityCache.peek(Tenants.DEFAULT, cart, 1).isEmpty());
+
+        ApplicabilityCache.Entry offered = entry(LocalDateTime.now().plusMinutes(1));
+        applicabilityCache.offer(Tenants.DEFAULT, cart, 1, offered);
+
+        assertEquals(offered.responses(), applicabilityCache.peek(Tenants.DEFAULT, cart, 1).get());
+        assertTrue(applicabilityCache.peek(Tenants.DEFAULT, cart, 2).isEmpty());
+        // An offered result serves regular lookups too
+        assertEquals(offered.responses(), applicabilityCache.get(Tenants.DEFAULT, cart, 1, () -> fail()));
+
+        applicabilityCache.offer(Tenants.DEFAULT, cart, 1, entry(LocalDateTime.now().minusMinutes(1)));
+        assertEquals(offered.responses(), applicabilityCache.peek(Tenants.DEFAULT, cart, 1).get());
+    }
+
+    @Test
+    void testOlderVersionDoesNotClearNewerEntries() {
+        AtomicInteger computations = new AtomicInteger();
+        Cart cart = createCart(100, List.of(createCartItem("P1", 100, 1)));
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+        applicabilityCache.get(Tenants.DEFAULT, cart, 2, () -> { computations.incrementAndGet(); return entry(later); });
+        // A request that read the catalog before the last write is computed but neither cached nor disruptive
+        applicabilityCache.get(Tenants.DEFAULT, cart, 1, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.offer(Tenants.DEFAULT, cart, 1, entry(later));
+        applicabilityCache.get(Tenants.DEFAULT, cart, 2, () -> { computations.incrementAndGet(); return entry(later); });
+
+        assertEquals(2, computations.get());
+        assertEquals(1, applicabilityCache.size(Tenants.DEFAULT));
+        assertTrue(applicabilityCache.peek(Tenants.DEFAULT, cart, 1).isEmpty());
+    }
+
+    @Test
+    void testCallersGetIndependentCopies() {
+        Cart cart = createCart(100, List.of(createCartItem("P1", 100, 1)));
+        ApplicableCouponResponse response = new ApplicableCouponResponse();
+        response.setSavings(10.0);
+        response.setCoupon(new CouponDTO());
+        response.getCoupon().setApplicableProducts(new ArrayList<>(List.of("P1")));
+        applicabilityCache.offer(Tenants.DEFAULT, cart, 1,
+                new ApplicabilityCache.Entry(List.of(response), LocalDateTime.now().plusHours(1)));
+        response.setSavings(0.0);
+
+        ApplicableCouponResponse first = applicabilityCache.peek(Tenants.DEFAULT, cart, 1).get().get(0);
+        first.setSavings(99.0);
+        first.getCoupon().getApplicableProducts().add("P2");
+        ApplicableCouponResponse second = applicabilityCache.get(Tenants.DEFAULT, cart, 1, () -> fail()).get(0);
+
+        assertEquals(10.0, second.getSavings());
+        assertEquals(List.of("P1"), second.getCoupon().getApplicableProducts());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void testUnknownTenantIsComputedButNotCached() {
+        AtomicInteger computations = new AtomicInteger();
+        Cart cart = createCart(100, List.of(createCartItem("P1", 100, 1)));
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+
+        applicabilityCache.get("ghost", cart, 0, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.get("ghost", cart, 0, () -> { computations.incrementAndGet(); return entry(later); });
+        applicabilityCache.offer("ghost", cart, 0, entry(later));
+
+        assertEquals(2, computations.get());
+        assertEquals(0, applicabilityCache.size("ghost"));
+        assertTrue(applicabilityCache.peek("ghost", cart, 0).isEmpty());
+    }
+}
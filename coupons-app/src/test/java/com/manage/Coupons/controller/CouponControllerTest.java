@@ -0,0 +1,446 @@
+package com.manage.Coupons.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CouponControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String cartWiseCoupon(String code) {
+        return "{\"name\":\"Cart Wise\",\"code\":\"" + code + "\",\"type\":\"CART_WISE\","
+                + "\"validFrom\":\"2020-01-01T00:00:00\",\"validTo\":\"2099-01-01T00:00:00\","
+                + "\"active\":true,\"minCartAmount\":100.0,\"discountPercentage\":10.0}";
+    }
+
+    @Test
+    void testListingIsNotModifiedUntilCatalogChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/coupons/active-coupons"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/coupons/active-coupons").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/coupons").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("ETAG10")))
+                .andExpect(status().isOk());
+
+        String changed = mockMvc.perform(get("/api/coupons/active-coupons").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.code == 'ETAG10')]").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void testListingIsGzippedWhenAccepted() throws Exception {
+        mockMvc.perform(get("/api/coupons").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void testGzipHonoursQualityValues() throws Exception {
+        mockMvc.perform(get("/api/coupons").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/api/coupons").header(HttpHeaders.ACCEPT_ENCODING, "x-gzipped, notgzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mockMvc.perform(get("/api/coupons").header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, GZIP;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/api/coupons").header(HttpHeaders.ACCEPT_ENCODING, "*;q=0.1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void testNotModifiedListingVaries() throws Exception {
+        String etag = mockMvc.perform(get("/api/coupons/active-coupons").header("X-Tenant-Id", "vary"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/coupons/active-coupons").header("X-Tenant-Id", "vary")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING, "X-Tenant-Id"));
+    }
+
+    @Test
+    void testApplyByCode() throws Exception {
+        mockMvc.perform(post("/api/coupons").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("BYCODE10")))
+                .andExpect(status().isOk());
+
+        String cart = "{\"cartId\":\"c1\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":2}]}";
+        mockMvc.perform(post("/api/coupons/apply-by-code/ bycode10").contentType(MediaType.APPLICATION_JSON)
+                .content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalAmount").value(180.0));
+
+        mockMvc.perform(post("/api/coupons/apply-by-code/UNKNOWN").contentType(MediaType.APPLICATION_JSON)
+                .content(cart))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testExportWritesOneCouponPerLine() throws Exception {
+        mockMvc.perform(post("/api/coupons").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("EXPORT10")))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/api/coupons/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(body.endsWith("\n"));
+        assertTrue(Arrays.stream(lines).anyMatch(line -> line.contains("\"code\":\"EXPORT10\"")));
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"type\":") && line.endsWith("}"), line);
+        }
+    }
+
+    @Test
+    void testExportIsGzippedWhenAccepted() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/coupons/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String ndjson = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(ndjson.split("\n").length, ndjson.chars().filter(c -> c == '\n').count());
+        }
+    }
+
+    @Test
+    void testCategoryWiseCouponAppliesToDescendantCategories() throws Exception {
+        String coupon = "{\"name\":\"Electronics\",\"code\":\"ELEC10\",\"type\":\"CATEGORY_WISE\","
+                + "\"active\":true,\"category\":\"ELECTRONICS\",\"discountPercentage\":10.0}";
+        mockMvc.perform(post("/api/coupons").contentType(MediaType.APPLICATION_JSON).content(coupon))
+                .andExpect(status().isOk());
+
+        String cart = "{\"cartId\":\"c2\",\"items\":[{\"productId\":\"PHONE-1\",\"price\":500.0,\"quantity\":1},"
+                + "{\"productId\":\"MILK-1\",\"price\":2.0,\"quantity\":5}]}";
+        mockMvc.perform(post("/api/coupons/apply-by-code/ELEC10").contentType(MediaType.APPLICATION_JSON)
+                .content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].discountedPrice").value(450.0))
+                .andExpect(jsonPath("$.items[1].discountedPrice").value(2.0))
+                .andExpect(jsonPath("$.totalAmount").value(460.0));
+
+        mockMvc.perform(post("/api/coupons").contentType(MediaType.APPLICATION_JSON)
+                .content(coupon.replace("ELEC10", "NOPE10").replace("ELECTRONICS", "GARDEN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testTenantsAreIsolated() throws Exception {
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "acme").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("SHARED10")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tenantId").value("acme"));
+        // Same code in another tenant is not a duplicate
+        String globexId = mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "globex")
+                .contentType(MediaType.APPLICATION_JSON).content(cartWiseCoupon("SHARED10")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        mockMvc.perform(get("/api/coupons/active-coupons").header("X-Tenant-Id", "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].tenantId").value("acme"));
+        mockMvc.perform(get("/api/coupons/" + globexId).header("X-Tenant-Id", "acme"))
+                .andExpect(status().isNotFound());
+
+        String cart = "{\"cartId\":\"c3\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":2}]}";
+        mockMvc.perform(post("/api/coupons/apply-coupon/" + globexId).header("X-Tenant-Id", "acme")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/coupons").header("X-Tenant-Id", "not a tenant"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testApplyOutcomeReportsRejectionsWithoutErrors() throws Exception {
+        mockMvc.perform(post("/api/coupons").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("OUTCOME10")))
+                .andExpect(status().isOk());
+
+        String bigCart = "{\"cartId\":\"c4\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":2}]}";
+        mockMvc.perform(post("/api/coupons/apply-by-code/outcome10/outcome").contentType(MediaType.APPLICATION_JSON)
+                .content(bigCart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outcome").value("APPLIED"))
+                .andExpect(jsonPath("$.discount").value(20.0))
+                .andExpect(jsonPath("$.cart.totalAmount").value(180.0));
+
+        String smallCart = "{\"cartId\":\"c5\",\"items\":[{\"productId\":\"P1\",\"price\":10.0,\"quantity\":1}]}";
+        mockMvc.perform(post("/api/coupons/apply-by-code/OUTCOME10/outcome").contentType(MediaType.APPLICATION_JSON)
+                .content(smallCart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.outcome").value("NOT_APPLICABLE"))
+                .andExpect(jsonPath("$.reason").value("Cart total doesn't meet minimum requirement"));
+
+        mockMvc.perform(post("/api/coupons/apply-coupon/999999/outcome").contentType(MediaType.APPLICATION_JSON)
+                .content(smallCart))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    void testApplicableCouponsNegotiatesCborAndSlimView() throws Exception {
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "wire").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("WIRE10")))
+                .andExpect(status().isOk());
+        String cart = "{\"cartId\":\"c6\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":2}]}";
+
+        mockMvc.perform(post("/api/coupons/applicable-coupons").header("X-Tenant-Id", "wire")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(jsonPath("$[0].coupon.code").value("WIRE10"))
+                .andExpect(jsonPath("$[0].savings").value(20.0));
+
+        mockMvc.perform(post("/api/coupons/applicable-coupons?view=slim").header("X-Tenant-Id", "wire")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].code").value("WIRE10"))
+                .andExpect(jsonPath("$[0].savings").value(20.0))
+                .andExpect(jsonPath("$[0].reason").doesNotExist())
+                .andExpect(jsonPath("$[0].coupon").doesNotExist());
+
+        byte[] cbor = mockMvc.perform(post("/api/coupons/applicable-coupons?view=slim").header("X-Tenant-Id", "wire")
+                .header(HttpHeaders.ACCEPT, "application/cbor")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode decoded = new CBORMapper().readTree(cbor);
+        assertEquals("WIRE10", decoded.get(0).get("code").asText());
+        assertEquals(20.0, decoded.get(0).get("savings").asDouble());
+
+        JsonNode full = new CBORMapper().readTree(mockMvc.perform(post("/api/coupons/applicable-coupons")
+                .header("X-Tenant-Id", "wire").header(HttpHeaders.ACCEPT, "application/cbor")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+        assertFalse(full.get(0).get("coupon").has("buyProducts"));
+
+        mockMvc.perform(post("/api/coupons/applicable-coupons?view=wide").contentType(MediaType.APPLICATION_JSON)
+                .content(cart))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBulkLifecycleUpdatesMatchingCouponsAtOneVersion() throws Exception {
+        for (String code : List.of("FLASH1", "FLASH2", "flash3", "KEEP1")) {
+            mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "bulk").contentType(MediaType.APPLICATION_JSON)
+                    .content(cartWiseCoupon(code)))
+                    .andExpect(status().isOk());
+        }
+        long before = Long.parseLong(mockMvc.perform(get("/api/coupons").header("X-Tenant-Id", "bulk"))
+                .andReturn().getResponse().getHeader("X-Catalog-Version"));
+
+        mockMvc.perform(post("/api/coupons/bulk/deactivate").header("X-Tenant-Id", "bulk")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"codePrefix\":\"flash\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(3))
+                .andExpect(jsonPath("$.catalogVersion").value(before + 1));
+
+        mockMvc.perform(get("/api/coupons/active-coupons").header("X-Tenant-Id", "bulk"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].code").value("KEEP1"));
+        mockMvc.perform(get("/api/coupons/changes?since=" + before).header("X-Tenant-Id", "bulk"))
+                .andExpect(jsonPath("$.changes.length()").value(3))
+                .andExpect(jsonPath("$.changes[0].kind").value("DEACTIVATED"))
+                .andExpect(jsonPath("$.changes[0].coupon.active").value(false));
+        // Already inactive coupons are not touched again
+        mockMvc.perform(post("/api/coupons/bulk/deactivate").header("X-Tenant-Id", "bulk")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"codePrefix\":\"FLASH\"}"))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.catalogVersion").value(before + 1));
+
+        mockMvc.perform(post("/api/coupons/bulk/extend").header("X-Tenant-Id", "bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"CART_WISE\",\"validTo\":\"2100-01-01T00:00:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(4));
+        mockMvc.perform(get("/api/coupons").header("X-Tenant-Id", "bulk"))
+                .andExpect(jsonPath("$[0].validTo").value("2100-01-01T00:00:00"))
+                .andExpect(jsonPath("$[0].validFrom").value("2020-01-01T00:00:00"))
+                .andExpect(jsonPath("$[0].version").value(2));
+
+        mockMvc.perform(post("/api/coupons/bulk/activate").header("X-Tenant-Id", "bulk")
+                .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExtendWithOneBoundRejectsInvertedWindows() throws Exception {
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "extend").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("EARLY")))
+                .andExpect(status().isOk());
+        String late = mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "extend")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("LATE").replace("2020-01-01T00:00:00", "2060-01-01T00:00:00")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long lateId = Long.parseLong(late.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        // Ending in 2050 is fine for EARLY but would put LATE's start after its end
+        mockMvc.perform(post("/api/coupons/bulk/extend").header("X-Tenant-Id", "extend")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"CART_WISE\",\"validTo\":\"2050-01-01T00:00:00\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.rejected.length()").value(1))
+                .andExpect(jsonPath("$.rejected[0]").value(lateId));
+        mockMvc.perform(get("/api/coupons").header("X-Tenant-Id", "extend"))
+                .andExpect(jsonPath("$[0].validTo").value("2050-01-01T00:00:00"))
+                .andExpect(jsonPath("$[1].validFrom").value("2060-01-01T00:00:00"))
+                .andExpect(jsonPath("$[1].validTo").value("2099-01-01T00:00:00"));
+    }
+
+    @Test
+    void testDeadlineBoundedApplicableCouponsRankBySavings() throws Exception {
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "budget").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("SMALL10")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "budget").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("BIG30").replace("\"discountPercentage\":10.0", "\"discountPercentage\":30.0")))
+                .andExpect(status().isOk());
+        String cart = "{\"cartId\":\"c7\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":2}]}";
+
+        mockMvc.perform(post("/api/coupons/applicable-coupons").header("X-Tenant-Id", "budget")
+                .header("X-Deadline-Ms", "5000").contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial").value(false))
+                .andExpect(jsonPath("$.unevaluated").value(0))
+                .andExpect(jsonPath("$.coupons[0].coupon.code").value("BIG30"))
+                .andExpect(jsonPath("$.coupons[1].coupon.code").value("SMALL10"));
+
+        // Served from the result the deadline-bounded request cached
+        mockMvc.perform(post("/api/coupons/applicable-coupons?view=slim&deadlineMs=5000").header("X-Tenant-Id", "budget")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coupons[0].code").value("BIG30"))
+                .andExpect(jsonPath("$.coupons[0].savings").value(60.0));
+        mockMvc.perform(post("/api/coupons/applicable-coupons").header("X-Tenant-Id", "budget")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].coupon.code").value("SMALL10"));
+
+        // A budget too large to add to the clock is capped rather than overflowing into the past
+        mockMvc.perform(post("/api/coupons/applicable-coupons").header("X-Tenant-Id", "budget")
+                .header("X-Deadline-Ms", Long.toString(Long.MAX_VALUE)).contentType(MediaType.APPLICATION_JSON)
+                .content(cart.replace("\"quantity\":2", "\"quantity\":3")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial").value(false))
+                .andExpect(jsonPath("$.coupons.length()").value(2));
+
+        mockMvc.perform(post("/api/coupons/applicable-coupons?deadlineMs=0").contentType(MediaType.APPLICATION_JSON)
+                .content(cart))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBestOnlySkipsDominatedCoupons() throws Exception {
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "redundant").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("SMALL10")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "redundant").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("BIG30").replace("\"discountPercentage\":10.0", "\"discountPercentage\":30.0")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "redundant").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("TIER40").replace("\"minCartAmount\":100.0", "\"minCartAmount\":300.0")
+                        .replace("\"discountPercentage\":10.0", "\"discountPercentage\":40.0")))
+                .andExpect(status().isOk());
+        // Inactive coupons are left out of the analysis
+        mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "redundant").contentType(MediaType.APPLICATION_JSON)
+                .content(cartWiseCoupon("OFF50").replace("\"discountPercentage\":10.0", "\"discountPercentage\":50.0")
+                        .replace("\"active\":true", "\"active\":false")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/coupons/redundancy-report").header("X-Tenant-Id", "redundant"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.analyzedCoupons").value(3))
+                .andExpect(jsonPath("$.dominated.length()").value(1))
+                .andExpect(jsonPath("$.dominated[0].code").value("SMALL10"))
+                .andExpect(jsonPath("$.dominated[0].dominatedByCode").value("BIG30"))
+                .andExpect(jsonPath("$.overlaps[0].couponIds.length()").value(2));
+
+        String cart = "{\"cartId\":\"c8\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":4}]}";
+        mockMvc.perform(post("/api/coupons/applicable-coupons?best=true").header("X-Tenant-Id", "redundant")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].coupon.code").value("TIER40"))
+                .andExpect(jsonPath("$[1].coupon.code").value("BIG30"));
+        mockMvc.perform(post("/api/coupons/applicable-coupons").header("X-Tenant-Id", "redundant")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        // Served from the cached full result, still without the dominated coupon
+        mockMvc.perform(post("/api/coupons/applicable-coupons?best=true&deadlineMs=5000").header("X-Tenant-Id", "redundant")
+                .contentType(MediaType.APPLICATION_JSON).content(cart))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coupons.length()").value(2))
+                .andExpect(jsonPath("$.partial").value(false));
+    }
+
+    @Test
+    void testRedundancyReportComparesEveryCouponType() throws Exception {
+        String productWise = "{\"name\":\"Product\",\"code\":\"%s\",\"type\":\"PRODUCT_WISE\","
+                + "\"validFrom\":\"2020-01-01T00:00:00\",\"validTo\":\"2099-01-01T00:00:00\","
+                + "\"active\":true,\"applicableProducts\":[\"P1\",\"P2\"],\"discountPercentage\":%s}";
+        String bxgy = "{\"name\":\"BxGy\",\"code\":\"%s\",\"type\":\"BXGY\","
+                + "\"validFrom\":\"2020-01-01T00:00:00\",\"validTo\":\"2099-01-01T00:00:00\","
+                + "\"active\":true,\"buyProducts\":[\"P1\"],\"buyQuantity\":2,\"getProducts\":[\"P3\"],"
+                + "\"getQuantity\":1,\"repetitionLimit\":%s}";
+        for (String coupon : List.of(cartWiseCoupon("MIXED10"), String.format(productWise, "PW10", "10.0"),
+                String.format(productWise, "PW20", "20.0"), String.format(bxgy, "BXGY1", "1"),
+                String.format(bxgy, "BXGY3", "3"))) {
+            mockMvc.perform(post("/api/coupons").header("X-Tenant-Id", "mixed").contentType(MediaType.APPLICATION_JSON)
+                    .content(coupon))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/coupons/redundancy-report").header("X-Tenant-Id", "mixed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.analyzedCoupons").value(5))
+                .andExpect(jsonPath("$.dominated.length()").value(2))
+                .andExpect(jsonPath("$.dominated[0].code").value("PW10"))
+                .andExpect(jsonPath("$.dominated[0].dominatedByCode").value("PW20"))
+                .andExpect(jsonPath("$.dominated[1].code").value("BXGY1"))
+                .andExpect(jsonPath("$.dominated[1].dominatedByCode").value("BXGY3"));
+    }
+}
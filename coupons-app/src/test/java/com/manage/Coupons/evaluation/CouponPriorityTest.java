@@ -0,0 +1,69 @@
+package com.manage.Coupons.evaluation;
+
+import com.manage.Coupons.engine.CartLine;
+import com.manage.Coupons.engine.CartSnapshot;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponPriorityTest {
+
+    private final CartSnapshot cart = CartSnapshot.of(List.of(
+            new CartLine("PHONE", 300.0, 1),
+            new CartLine("CASE", 20.0, 5)));
+
+    @Test
+    void testCartWiseFixedDiscountTakesPrecedence() {
+        CartWiseCoupon coupon = new CartWiseCoupon();
+        coupon.setMinCartAmount(100.0);
+        coupon.setDiscountPercentage(50.0);
+        coupon.setFixedDiscount(30.0);
+
+        assertEquals(30.0, CouponPriority.estimatedSavings(coupon, cart), 1e-9);
+
+        coupon.setMinCartAmount(1000.0);
+        assertEquals(0.0, CouponPriority.estimatedSavings(coupon, cart), 1e-9);
+    }
+
+    @Test
+    void testProductWiseFixedDiscountIsBoundedPerUnit() {
+        ProductWiseCoupon coupon = new ProductWiseCoupon();
+        coupon.setApplicableProducts(List.of("PHONE", "CASE"));
+        coupon.setFixedDiscount(25.0);
+
+        // 25 off the phone, and each case's full 20 price five times
+        assertEquals(125.0, CouponPriority.estimatedSavings(coupon, cart), 1e-9);
+
+        coupon.setDiscountPercentage(10.0);
+        assertEquals(40.0, CouponPriority.estimatedSavings(coupon, cart), 1e-9);
+    }
+
+    private CartWiseCoupon fixed(double discount) {
+        CartWiseCoupon coupon = new CartWiseCoupon();
+        coupon.setFixedDiscount(discount);
+        return coupon;
+    }
+
+    @Test
+    void testHighestSavingsFirst() {
+        CartWiseCoupon small = fixed(10.0);
+        CartWiseCoupon large = fixed(50.0);
+        CartWiseCoupon medium = fixed(30.0);
+
+        assertEquals(List.of(large, medium, small), CouponPriority.highestSavingsFirst(List.of(small, large, medium),
+                cart, ParallelEvaluator.NO_DEADLINE));
+    }
+
+    @Test
+    void testRankingStopsAtDeadline() {
+        List<CartWiseCoupon> coupons = List.of(fixed(10.0), fixed(50.0), fixed(30.0));
+
+        // Past the deadline nothing is estimated and the original order is kept
+        assertEquals(coupons, CouponPriority.highestSavingsFirst(coupons, cart, System.nanoTime() - 1));
+    }
+}
@@ -0,0 +1,135 @@
+package com.manage.Coupons.evaluation;
+
+import com.manage.Coupons.config.EvaluationProperties;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelEvaluatorTest {
+
+    @Spy
+    private EvaluationProperties evaluationProperties = new EvaluationProperties();
+
+    @InjectMocks
+    private ParallelEvaluator parallelEvaluator;
+
+    private final List<Integer> candidates = IntStream.range(0, 10_000).boxed().toList();
+
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        evaluationProperties.setParallelism(4);
+        evaluationProperties.setParallelThreshold(Duration.ZERO);
+        evaluationProperties.setLeafTarget(Duration.ofNanos(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelEvaluator.stop();
+    }
+
+    private Integer check(Integer candidate) {
+        threads.add(Thread.currentThread().getName());
+        return candidate;
+    }
+
+    @Test
+    void testParallelRunKeepsCandidateOrder() {
+        parallelEvaluator.start();
+
+        List<Integer> even = parallelEvaluator.evaluate(candidates, 5, this::check, c -> c % 2 == 0);
+
+        assertEquals(candidates.stream().filter(c -> c % 2 == 0).toList(), even);
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("coupon-evaluation-")), threads.toString());
+    }
+
+    @Test
+    void testSmallRunsStayOnCallingThread() {
+        evaluationProperties.setParallelThreshold(Duration.ofHours(1));
+        parallelEvaluator.start();
+
+        assertEquals(candidates, parallelEvaluator.evaluate(candidates, 5, this::check, c -> true));
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    void testNoPoolWithoutPermitsOrThreads() {
+        evaluationProperties.setMaxParallelEvaluations(0);
+        parallelEvaluator.start();
+
+        assertFalse(parallelEvaluator.isParallel());
+        assertEquals(candidates, parallelEvaluator.evaluate(candidates, 5, this::check, c -> true));
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    @Test
+    void testRunsCalibrateCostPerUnit() {
+        parallelEvaluator.start();
+
+        parallelEvaluator.evaluate(candidates, 5, c -> {
+            long until = System.nanoTime() + 2_000;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return c;
+        }, c -> true);
+
+        assertTrue(parallelEvaluator.getNanosPerUnit() > ParallelEvaluator.INITIAL_NANOS_PER_UNIT,
+                String.valueOf(parallelEvaluator.getNanosPerUnit()));
+    }
+
+    private Integer slowCheck(Integer candidate) {
+        long until = System.nanoTime() + 20_000;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+        return candidate;
+    }
+
+    @Test
+    void testDeadlineStopsSequentialRunWithPartialResults() {
+        evaluationProperties.setParallelThreshold(Duration.ofHours(1));
+        parallelEvaluator.start();
+
+        ParallelEvaluator.Results<Integer> results = parallelEvaluator.evaluate(candidates, 1, this::slowCheck,
+                c -> true, System.nanoTime() + Duration.ofMillis(20).toNanos());
+
+        assertTrue(results.isPartial());
+        assertEquals(candidates.size(), results.results().size() + results.unevaluated());
+        // Candidates are taken in order, so what was found is a prefix
+        assertEquals(candidates.subList(0, results.results().size()), results.results());
+    }
+
+    @Test
+    void testDeadlineStopsParallelRunWithPartialResults() {
+        parallelEvaluator.start();
+
+        ParallelEvaluator.Results<Integer> results = parallelEvaluator.evaluate(candidates, 1, this::slowCheck,
+                c -> true, System.nanoTime() + Duration.ofMillis(20).toNanos());
+
+        assertTrue(results.isPartial());
+        assertEquals(candidates.size(), results.results().size() + results.unevaluated());
+    }
+
+    @Test
+    void testPassedDeadlineEvaluatesNothing() {
+        parallelEvaluator.start();
+
+        ParallelEvaluator.Results<Integer> results = parallelEvaluator.evaluate(candidates, 1, this::check,
+                c -> true, System.nanoTime() - 1);
+
+        assertTrue(results.results().isEmpty());
+        assertEquals(candidates.size(), results.unevaluated());
+    }
+}
@@ -0,0 +1,136 @@
+package com.manage.Coupons.index;
+
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.tenant.Tenants;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponCodeIndexTest {
+
+    private Coupon createCoupon(long id, String code) {
+        CartWiseCoupon coupon = new CartWiseCoupon();
+        coupon.setId(id);
+        coupon.setCode(code);
+        return coupon;
+    }
+
+    @Test
+    void testFindIsCaseAndWhitespaceInsensitive() {
+        CouponCodeIndex index = new CouponCodeIndex();
+        index.rebuild(List.of(createCoupon(1L, "Cart10"), createCoupon(2L, "ELEC20")));
+
+        assertEquals(1L, index.findId(Tenants.DEFAULT, "  cart10 ").get());
+        assertEquals(2L, index.findId(Tenants.DEFAULT, "elec20").get());
+        assertTrue(index.findId(Tenants.DEFAULT, "NOPE").isEmpty());
+        assertTrue(index.findId(Tenants.DEFAULT, null).isEmpty());
+    }
+
+    @Test
+    void testPutAndRemove() {
+        CouponCodeIndex index = new CouponCodeIndex();
+        for (long i = 0; i < 1000; i++) {
+            index.put(createCoupon(i, "CODE" + i));
+        }
+
+        assertEquals(1000, index.size(Tenants.DEFAULT));
+        assertEquals(500L, index.findId(Tenants.DEFAULT, "code500").get());
+
+        index.remove(Tenants.DEFAULT, 500L);
+
+        assertTrue(index.findId(Tenants.DEFAULT, "CODE500").isEmpty());
+        assertEquals(999, index.size(Tenants.DEFAULT));
+        for (long i = 0; i < 1000; i++) {
+            if (i != 500) {
+                assertEquals(i, index.findId(Tenants.DEFAULT, "CODE" + i).get());
+            }
+        }
+    }
+
+    @Test
+    void testPutReplacesSameCoupon() {
+        CouponCodeIndex index = new CouponCodeIndex();
+        index.put(createCoupon(1L, "OLD"));
+
+        index.put(createCoupon(1L, "NEW"));
+
+        assertEquals(1, index.size(Tenants.DEFAULT));
+        assertTrue(index.findId(Tenants.DEFAULT, "old").isEmpty());
+        assertEquals(1L, index.findId(Tenants.DEFAULT, "new").get());
+    }
+
+    @Test
+    void testRebuildFromBuilderDropsUnseenTenants() {
+        CouponCodeIndex index = new CouponCodeIndex();
+        Coupon acme = createCoupon(1L, "ACME");
+        acme.setTenantId("acme");
+        index.put(acme);
+        CouponCodeIndex.Builder builder = new CouponCodeIndex.Builder();
+        for (long i = 0; i < 100; i++) {
+            builder.add(createCoupon(i, "CODE" + i));
+        }
+
+        index.rebuild(builder);
+
+        assertEquals(100, index.size(Tenants.DEFAULT));
+        assertEquals(42L, index.findId(Tenants.DEFAULT, "code42").get());
+        assertEquals(0, index.size("acme"));
+        assertTrue(index.findId("acme", "ACME").isEmpty());
+    }
+
+    @Test
+    void testPutAllReplacesAndAddsInOneBatch() {
+        CouponCodeIndex index = new CouponCodeIndex();
+        index.rebuild(List.of(createCoupon(1L, "KEEP"), createCoupon(2L, "RENAME")));
+        Coupon acme = createCoupon(4L, "ACME");
+        acme.setTenantId("acme");
+
+        index.putAll(List.of(createCoupon(2L, "RENAMED"), createCoupon(3L, "NEW"), acme));
+
+        assertEquals(3, index.size(Tenants.DEFAULT));
+        assertTrue(index.findId(Tenants.DEFAULT, "RENAME").isEmpty());
+        assertEquals(2L, index.findId(Tenants.DEFAULT, "renamed").get());
+        assertEquals(3L, index.findId(Tenants.DEFAULT, "new").get());
+        assertEquals(1L, index.findId(Tenants.DEFAULT, "keep").get());
+        assertEquals(4L, index.findId("acme", "acme").get());
+    }
+
+    @Test
+    void testTenantsHaveSeparateCodeSpaces() {
+        CouponCodeIndex index = new CouponCodeIndex();
+        Coupon acme = createCoupon(1L, "SAVE10");
+        acme.setTenantId("acme");
+        Coupon globex = createCoupon(2L, "SAVE10");
+        globex.setTenantId("globex");
+        index.rebuild(List.of(acme, globex));
+
+        assertEquals(1L, index.findId("acme", "save10").get());
+        assertEquals(2L, index.findId("globex", "save10").get());
+        assertTrue(index.findId(Tenants.DEFAULT, "save10").isEmpty());
+
+        index.remove("acme", 1L);
+        assertTrue(index.findId("acme", "SAVE10").isEmpty());
+        assertEquals(1, index.size("globex"));
+    }
+
+    @Test
+    void testBloomFilterRejectsMostUnknownCodes() {
+        BloomFilter bloom = BloomFilter.forKeys(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.add(CouponCodeIndex.hash("CODE" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain(CouponCodeIndex.hash("CODE" + i)));
+            if (bloom.mightContain(CouponCodeIndex.hash("GUESS" + i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,114 @@
+package com.manage.Coupons.index;
+
+import com.manage.Coupons.model.BxGyCoupon;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+import com.manage.Coupons.model.ProductWiseCoupon;
+import com.manage.Coupons.tenant.Tenants;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCouponIndexTest {
+
+    private Coupon productWise(long id, String... products) {
+        ProductWiseCoupon coupon = new ProductWiseCoupon();
+        coupon.setId(id);
+        coupon.setCode("P" + id);
+        coupon.setApplicableProducts(List.of(products));
+        return coupon;
+    }
+
+    private Coupon bxgy(long id, String... buyProducts) {
+        BxGyCoupon coupon = new BxGyCoupon();
+        coupon.setId(id);
+        coupon.setCode("B" + id);
+        coupon.setBuyProducts(List.of(buyProducts));
+        coupon.setGetProducts(List.of("FREE"));
+        return coupon;
+    }
+
+    @Test
+    void testPostingMatrixRoundTrip() {
+        PostingMatrix.Builder builder = new PostingMatrix.Builder();
+        for (long id = 0; id < 10_000; id++) {
+            builder.add(100 + id % 7, id * 31);
+        }
+        builder.add(103, 3 * 31);
+        PostingMatrix matrix = builder.build();
+
+        assertEquals(7, matrix.keys());
+        assertEquals(10_000, matrix.relations());
+        assertTrue(matrix.offHeapBytes() > 0);
+        List<Long> ids = new ArrayList<>();
+        assertEquals(1429, matrix.forEach(103, ids::add));
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals((3 + 7L * i) * 31, ids.get(i));
+        }
+        assertEquals(0, matrix.forEach(42, id -> fail()));
+    }
+
+    @Test
+    void testCandidatesFromRebuild() {
+        ProductCouponIndex index = new ProductCouponIndex();
+        CartWiseCoupon cartWise = new CartWiseCoupon();
+        cartWise.setId(9L);
+        index.rebuild(List.of(productWise(1L, "PHONE", "CASE"), productWise(2L, "LAPTOP"), bxgy(3L, "CASE"), cartWise));
+
+        assertEquals(Set.of(1L, 3L), index.candidates(Tenants.DEFAULT, List.of("CASE")));
+        assertEquals(Set.of(1L, 2L), index.candidates(Tenants.DEFAULT, List.of("PHONE", "LAPTOP")));
+        assertTrue(index.candidates(Tenants.DEFAULT, List.of("MILK")).isEmpty());
+        assertTrue(index.candidates("other", List.of("PHONE")).isEmpty());
+    }
+
+    @Test
+    void testPutAndRemoveOverlayTheMatrix() {
+        ProductCouponIndex index = new ProductCouponIndex();
+        index.rebuild(List.of(productWise(1L, "PHONE"), productWise(2L, "PHONE")));
+
+        index.remove(Tenants.DEFAULT, 1L);
+        index.put(productWise(3L, "PHONE"));
+        index.put(productWise(2L, "LAPTOP"));
+
+        assertEquals(Set.of(3L), index.candidates(Tenants.DEFAULT, List.of("PHONE")));
+        assertEquals(Set.of(2L), index.candidates(Tenants.DEFAULT, List.of("LAPTOP")));
+
+        index.remove(Tenants.DEFAULT, 3L);
+        assertTrue(index.candidates(Tenants.DEFAULT, List.of("PHONE")).isEmpty());
+    }
+
+    @Test
+    void testCompactionKeepsOverlayWrites() {
+        ProductCouponIndex index = new ProductCouponIndex();
+        index.rebuild(List.of(productWise(0L, "SKU-0")));
+        int coupons = ProductCouponIndex.COMPACTION_THRESHOLD * 2;
+        for (long id = 1; id <= coupons; id++) {
+            index.put(productWise(id, "SKU-" + (id % 10)));
+        }
+        index.remove(Tenants.DEFAULT, 10L);
+
+        assertTrue(index.offHeapBytes() > 0);
+        Set<Long> candidates = index.candidates(Tenants.DEFAULT, List.of("SKU-0"));
+        assertEquals(coupons / 10, candidates.size());
+        assertTrue(candidates.contains(0L));
+        assertFalse(candidates.contains(10L));
+    }
+
+    @Test
+    void testTenantsAreIsolated() {
+        ProductCouponIndex index = new ProductCouponIndex();
+        Coupon other = productWise(2L, "PHONE");
+        other.setTenantId("acme");
+        index.rebuild(List.of(productWise(1L, "PHONE"), other));
+
+        assertEquals(Set.of(1L), index.candidates(Tenants.DEFAULT, List.of("PHONE")));
+        assertEquals(Set.of(2L), index.candidates("acme", List.of("PHONE")));
+
+        index.remove("acme", 2L);
+        assertEquals(Set.of(1L), index.candidates(Tenants.DEFAULT, List.of("PHONE")));
+        assertTrue(index.candidates("acme", List.of("PHONE")).isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.manage.Coupons.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CouponEventAnalyzerTest {
+
+    @TempDir
+    Path directory;
+
+    private void check(long couponId) {
+        CouponCheckEvent event = new CouponCheckEvent();
+        event.begin();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setCouponId(couponId);
+            event.setCouponType("BXGY");
+            event.commit();
+        }
+    }
+
+    private CouponEventAnalyzer.Sample sample(String event, long couponId, long millis) {
+        return new CouponEventAnalyzer.Sample(event, couponId, "BXGY", Duration.ofMillis(millis));
+    }
+
+    @Test
+    void testBundledProfileParses() throws Exception {
+        Configuration configuration = Configuration.create(Path.of("jfr/coupons.jfc"));
+
+        assertEquals("1 ms", configuration.getSettings().get(CouponCheckEvent.NAME + "#threshold"));
+    }
+
+    @Test
+    void testSlowestCouponsAreSummarized() {
+        List<CouponEventAnalyzer.Sample> samples = List.of(
+                sample(CouponCheckEvent.NAME, 2L, 5),
+                sample(CouponCheckEvent.NAME, 3L, 10),
+                sample(CouponCheckEvent.NAME, 2L, 3),
+                sample(CouponApplyEvent.NAME, 2L, 7),
+                sample(CouponCheckEvent.NAME, 4L, 1));
+
+        List<CouponEventAnalyzer.CouponTiming> slowest = CouponEventAnalyzer.summarize(samples, 3);
+
+        assertEquals(3, slowest.size());
+        assertEquals(3L, slowest.get(0).couponId());
+        assertEquals(CouponApplyEvent.NAME, slowest.get(1).event());
+        CouponEventAnalyzer.CouponTiming checks = slowest.get(2);
+        assertEquals(2L, checks.couponId());
+        assertEquals(2, checks.count());
+        assertEquals(Duration.ofMillis(5), checks.max());
+        assertEquals(Duration.ofMillis(4), checks.average());
+    }
+
+    @Test
+    void testRecordingIsRead() throws Exception {
+        Path file = directory.resolve("coupons.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(CouponCheckEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            check(1L);
+            check(2L);
+            check(2L);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (CouponEventAnalyzer.CouponTiming timing : CouponEventAnalyzer.slowestCoupons(file, 10)) {
+            counts.put(timing.couponId(), timing.count());
+        }
+
+        assertEquals(Map.of(1L, 1L, 2L, 2L), counts);
+    }
+}
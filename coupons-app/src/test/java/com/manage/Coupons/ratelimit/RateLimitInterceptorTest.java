@@ -0,0 +1,66 @@
+package com.manage.Coupons.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RateLimitInterceptorTest {
+
+    private static final String CART = "{\"cartId\":\"c1\",\"items\":[{\"productId\":\"P1\",\"price\":10.0,\"quantity\":1}]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // apply-by-code allows a burst of 10 per client; each test uses its own address
+    private MockHttpServletRequestBuilder applyByCode(String address, String clientId) {
+        MockHttpServletRequestBuilder request = post("/api/coupons/apply-by-code/NOSUCHCODE")
+                .contentType(MediaType.APPLICATION_JSON).content(CART)
+                .with(r -> {
+                    r.setRemoteAddr(address);
+                    return r;
+                });
+        return clientId == null ? request : request.header("X-Client-Id", clientId);
+    }
+
+    @Test
+    void testRejectsWithRetryAfterOnceBucketIsEmpty() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(applyByCode("10.0.0.1", "shop"))
+                    .andExpect(status().isNotFound());
+        }
+        mockMvc.perform(applyByCode("10.0.0.1", "shop"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.details").value("Request Rejected By Admission Control"));
+
+        // Another client of the same address still has its own share
+        mockMvc.perform(applyByCode("10.0.0.1", "app"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRotatingClientIdsShareTheAddressBudget() throws Exception {
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            int status = mockMvc.perform(applyByCode("10.0.0.2", "client-" + i)).andReturn().getResponse().getStatus();
+            if (status == 429) {
+                break;
+            }
+            assertEquals(404, status);
+            admitted++;
+        }
+        // Four clients' worth of burst, plus whatever refilled while the loop ran
+        assertTrue(admitted >= 40 && admitted < 60, "admitted " + admitted);
+    }
+}
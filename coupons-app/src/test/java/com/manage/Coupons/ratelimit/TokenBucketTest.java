@@ -0,0 +1,85 @@
+package com.manage.Coupons.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertTrue(bucket.tryConsume(0) > 0);
+    }
+
+    @Test
+    void testRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(SECOND / 2));
+    }
+
+    @Test
+    void testIsFullAfterIdle() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryConsume(0);
+
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    void testConcurrencyLimiter() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testBucketTableSweepDropsFullBucketsAndTrimsClosestToFull() {
+        BucketTable table = new BucketTable(2);
+        TokenBucket a = table.get("a", 0, t -> new TokenBucket(2, 1, t));
+        TokenBucket b = table.get("b", 0, t -> new TokenBucket(2, 1, t));
+        TokenBucket c = table.get("c", 0, t -> new TokenBucket(2, 1, t));
+        TokenBucket idle = table.get("idle", 0, t -> new TokenBucket(2, 1, t));
+        assertSame(a, table.get("a", 0, t -> fail()));
+        a.tryConsume(0);
+        a.tryConsume(0);
+        b.tryConsume(0);
+        c.tryConsume(SECOND / 2);
+
+        table.sweep(SECOND / 2);
+
+        // The idle bucket had refilled; of the rest, b was closest to full
+        assertEquals(2, table.size());
+        assertSame(a, table.get("a", SECOND / 2, t -> fail()));
+        assertSame(c, table.get("c", SECOND / 2, t -> fail()));
+        assertNotSame(b, table.get("b", SECOND / 2, t -> new TokenBucket(2, 1, t)));
+        assertNotSame(idle, table.get("idle", SECOND / 2, t -> new TokenBucket(2, 1, t)));
+    }
+
+    @Test
+    void testBucketTableSharesOverflowBucketWhenFull() {
+        BucketTable table = new BucketTable(1);
+        table.get("a", 0, t -> new TokenBucket(1, 1, t));
+        table.get("b", 0, t -> new TokenBucket(1, 1, t));
+
+        TokenBucket overflow = table.get("c", 0, t -> new TokenBucket(1, 1, t));
+
+        assertSame(overflow, table.get("d", 0, t -> fail()));
+        assertEquals(2, table.size());
+        assertEquals(0, overflow.tryConsume(0));
+        assertTrue(table.get("e", 0, t -> fail()).tryConsume(0) > 0);
+    }
+}
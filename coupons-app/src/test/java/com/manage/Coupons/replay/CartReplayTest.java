@@ -0,0 +1,79 @@
+package com.manage.Coupons.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.manage.Coupons.engine.CategoryTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartReplayTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    void testReplayTalliesApplicableAndBestCoupons() throws Exception {
+        Path catalog = directory.resolve("catalog.ndjson");
+        Files.write(catalog, List.of(
+                "{\"type\":\"CART_WISE\",\"id\":1,\"name\":\"Ten\",\"code\":\"CART10\",\"active\":true,"
+                        + "\"minCartAmount\":100.0,\"discountPercentage\":10.0}",
+                "{\"type\":\"PRODUCT_WISE\",\"id\":2,\"name\":\"P1\",\"code\":\"P1HALF\",\"active\":true,"
+                        + "\"applicableProducts\":[\"P1\"],\"discountPercentage\":50.0}",
+                "{\"type\":\"CART_WISE\",\"id\":3,\"name\":\"Off\",\"code\":\"OFF\",\"active\":false,"
+                        + "\"minCartAmount\":0.0,\"discountPercentage\":90.0}"));
+
+        // More carts than one batch, so reading overlaps with evaluation of the previous batch
+        int cartCount = 2 * CartReplay.BATCH_SIZE + 1000;
+        List<String> carts = new ArrayList<>();
+        for (int i = 0; i < cartCount; i++) {
+            if (i % 2 == 0) {
+                carts.add("{\"id\":\"" + i + "\",\"items\":[{\"productId\":\"P1\",\"price\":100.0,\"quantity\":1}]}");
+            } else {
+                carts.add("{\"id\":\"" + i + "\",\"items\":[{\"productId\":\"P2\",\"price\":200.0,\"quantity\":1}]}");
+            }
+        }
+        carts.add("not json");
+        carts.add("null");
+        carts.add("{\"id\":\"x\",\"items\":[null]}");
+        Path cartsFile = directory.resolve("carts.ndjson");
+        Files.write(cartsFile, carts);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CartReplay.ReplayReport report;
+        try {
+            CartReplay replay = new CartReplay(CartReplay.readCatalog(catalog, objectMapper), CategoryTree.empty(),
+                    objectMapper, pool);
+            report = replay.replay(cartsFile);
+        } finally {
+            pool.shutdown();
+        }
+        int half = cartCount / 2;
+
+        assertEquals(cartCount, report.carts());
+        assertEquals(3, report.malformedCarts());
+        assertEquals(cartCount, report.cartsWithCoupon());
+        assertEquals(2, report.coupons().size());
+
+        CartReplay.CouponOutcome cart10 = report.coupons().stream().filter(c -> c.couponId() == 1L).findFirst().get();
+        assertEquals(cartCount, cart10.applicableCarts());
+        assertEquals(half * 10.0 + half * 20.0, cart10.totalDiscount(), 1e-6);
+        assertEquals(half, cart10.bestCarts());
+
+        CartReplay.CouponOutcome p1half = report.coupons().stream().filter(c -> c.couponId() == 2L).findFirst().get();
+        assertEquals(half, p1half.applicableCarts());
+        assertEquals(half, p1half.bestCarts());
+        assertEquals(half * 50.0, p1half.bestDiscount(), 1e-6);
+        assertEquals(half * 50.0 + half * 20.0, report.campaignCost(), 1e-6);
+    }
+}
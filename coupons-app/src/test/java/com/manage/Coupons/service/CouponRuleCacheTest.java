@@ -0,0 +1,59 @@
+package com.manage.Coupons.service;
+
+import com.manage.Coupons.category.CategoryCatalog;
+import com.manage.Coupons.engine.CategoryTree;
+import com.manage.Coupons.engine.CouponRule;
+import com.manage.Coupons.model.CartWiseCoupon;
+import com.manage.Coupons.model.Coupon;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CouponRuleCacheTest {
+
+    @Mock
+    private CategoryCatalog categoryCatalog;
+
+    @InjectMocks
+    private CouponRuleCache couponRuleCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(categoryCatalog.tree()).thenReturn(CategoryTree.empty());
+    }
+
+    private Coupon createCoupon(long id, double minCartAmount) {
+        CartWiseCoupon coupon = new CartWiseCoupon();
+        coupon.setId(id);
+        coupon.setCode("CODE" + id);
+        coupon.setMinCartAmount(minCartAmount);
+        coupon.setDiscountPercentage(10.0);
+        return coupon;
+    }
+
+    @Test
+    void testRuleIsCompiledOncePerVersion() {
+        CouponRule first = couponRuleCache.rule("acme", 1, createCoupon(1L, 100));
+        CouponRule second = couponRuleCache.rule("acme", 1, createCoupon(1L, 100));
+
+        assertSame(first, second);
+        assertEquals(1, couponRuleCache.size("acme"));
+        assertEquals(0, couponRuleCache.size("globex"));
+    }
+
+    @Test
+    void testNewVersionRecompilesAndOlderVersionIsNotCached() {
+        CouponRule original = couponRuleCache.rule("acme", 1, createCoupon(1L, 100));
+        CouponRule updated = couponRuleCache.rule("acme", 2, createCoupon(1L, 200));
+
+        assertNotSame(original, updated);
+        // A request that read version 1 gets a fresh rule without evicting version 2
+        assertNotSame(updated, couponRuleCache.rule("acme", 1, createCoupon(1L, 100)));
+        assertSame(updated, couponRuleCache.rule("acme", 2, createCoupon(1L, 200)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.manage.Coupons.sync;
+
+import com.manage.Coupons.config.SyncProperties;
+import com.manage.Coupons.dto.CatalogChange;
+import com.manage.Coupons.dto.CatalogChangesResponse;
+import com.manage.Coupons.dto.CouponDTO;
+import com.manage.Coupons.service.CatalogVersion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogChangeLogTest {
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Spy
+    private SyncProperties syncProperties = new SyncProperties();
+
+    @InjectMocks
+    private CatalogChangeLog catalogChangeLog;
+
+    private static final String TENANT = "acme";
+
+    private long baseline;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        baseline = catalogVersion.current(TENANT);
+    }
+
+    private CouponDTO dto(long id) {
+        CouponDTO dto = new CouponDTO();
+        dto.setId(id);
+        dto.setCode("CODE" + id);
+        return dto;
+    }
+
+    @Test
+    void testChangesSinceVersion() {
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 1L, dto(1));
+        long afterFirst = catalogVersion.current(TENANT);
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 2L, dto(2));
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.DELETED, 1L, dto(1));
+
+        CatalogChangesResponse response = catalogChangeLog.changesSince(TENANT, afterFirst, 100, null);
+
+        assertFalse(response.isResyncRequired());
+        assertEquals(2, response.getChanges().size());
+        assertEquals(CatalogChange.Kind.DELETED, response.getChanges().get(1).getKind());
+        assertNull(response.getChanges().get(1).getCoupon());
+        assertEquals(catalogVersion.current(TENANT), response.getNextSince());
+        assertFalse(response.isHasMore());
+    }
+
+    @Test
+    void testPageKeepsLatestChangePerCoupon() {
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 1L, dto(1));
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.DEACTIVATED, 1L, dto(1));
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 2L, dto(2));
+
+        CatalogChangesResponse response = catalogChangeLog.changesSince(TENANT, baseline, 2, null);
+
+        assertEquals(1, response.getChanges().size());
+        assertEquals(CatalogChange.Kind.DEACTIVATED, response.getChanges().get(0).getKind());
+        assertTrue(response.isHasMore());
+
+        CatalogChangesResponse next = catalogChangeLog.changesSince(TENANT, response.getNextSince(), 2, null);
+        assertEquals(2L, next.getChanges().get(0).getCouponId());
+        assertFalse(next.isHasMore());
+    }
+
+    @Test
+    void testResyncWhenCompactedOrForeignEpoch() {
+        syncProperties.setRetainedChanges(4);
+        for (long i = 0; i < 10; i++) {
+            catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, i, dto(i));
+        }
+
+        assertTrue(catalogChangeLog.changesSince(TENANT, baseline, 100, null).isResyncRequired());
+        assertTrue(catalogChangeLog.changesSince(TENANT, 0, 100, null).isResyncRequired());
+        assertTrue(catalogChangeLog.changesSince(TENANT, catalogVersion.current(TENANT), 100, "other").isResyncRequired());
+        assertFalse(catalogChangeLog.changesSince(TENANT, catalogVersion.current(TENANT) - 2, 100,
+                catalogChangeLog.getEpoch()).isResyncRequired());
+    }
+
+    @Test
+    void testTenantsHaveIndependentLogs() {
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 1L, dto(1));
+        catalogChangeLog.record("globex", CatalogChange.Kind.CREATED, 2L, dto(2));
+        catalogChangeLog.record("globex", CatalogChange.Kind.CREATED, 3L, dto(3));
+
+        CatalogChangesResponse acme = catalogChangeLog.changesSince(TENANT, baseline, 100, null);
+        assertEquals(1, acme.getChanges().size());
+        assertEquals(1L, acme.getChanges().get(0).getCouponId());
+        assertEquals(2, catalogChangeLog.changesSince("globex", 0, 100, null).getChanges().size());
+        assertEquals(baseline + 1, catalogVersion.current(TENANT));
+    }
+
+    @Test
+    void testBulkWriteSharesOneVersionAcrossPages() {
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 1L, dto(1));
+        long version = catalogChangeLog.recordAll(TENANT, CatalogChange.Kind.DEACTIVATED,
+                List.of(dto(2), dto(3), dto(4)));
+        catalogChangeLog.record(TENANT, CatalogChange.Kind.CREATED, 5L, dto(5));
+
+        assertEquals(baseline + 2, version);
+        CatalogChangesResponse first = catalogChangeLog.changesSince(TENANT, baseline, 2, null);
+        // The page grows to hold the whole bulk version instead of splitting it
+        assertEquals(4, first.getChanges().size());
+        assertEquals(version, first.getNextSince());
+        assertTrue(first.isHasMore());
+
+        CatalogChangesResponse second = catalogChangeLog.changesSince(TENANT, first.getNextSince(), 2, null);
+        assertEquals(List.of(5L), second.getChanges().stream().map(CatalogChange::getCouponId).toList());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void testReadsDoNotCreateLogs() {
+        CatalogChangesResponse response = catalogChangeLog.changesSince("ghost", 0, 100, null);
+
+        assertFalse(response.isResyncRequired());
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals(0, response.getNextSince());
+        assertTrue(catalogChangeLog.changesSince("ghost", 5, 100, null).isResyncRequired());
+        assertFalse(catalogChangeLog.hasLog("ghost"));
+        assertFalse(catalogVersion.isKnown("ghost"));
+    }
+}